@@ -0,0 +1,56 @@
+package com.zerox80.riotapi.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchV5Dto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a full match-v5 payload (10 participants with challenges, perks and missions; about 70 KB)
+ * the way {@link RiotApiClient} does: from a response stream through the Riot mapper configuration, with and
+ * without the projection to the cached {@link MatchSummary}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchDecodingBenchmark {
+
+    private byte[] payload;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = MatchDecodingBenchmark.class.getResourceAsStream("/match-v5.json")) {
+            payload = in.readAllBytes();
+        }
+        reader = RiotApiClient.riotMapper(new ObjectMapper()).readerFor(MatchV5Dto.class);
+    }
+
+    @Benchmark
+    public MatchV5Dto decodeMatch() throws IOException {
+        return reader.readValue(new ByteArrayInputStream(payload));
+    }
+
+    @Benchmark
+    public MatchSummary decodeMatchSummary() throws IOException {
+        return MatchSummary.from(reader.readValue(new ByteArrayInputStream(payload)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.zerox80.riotapi.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerox80.riotapi.client.RiotApiClient;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchV5Dto;
+import com.zerox80.riotapi.model.ParticipantDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RiotApiService#getChampionPlayCounts} over a decoded match history, with the searched player
+ * on a different champion pool per match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChampionPlayCountsBenchmark {
+
+    private static final String SEARCHED_PUUID = "bench-searched-puuid";
+    private static final String[] CHAMPION_POOL = {"Ahri", "Orianna", "Syndra", "Viktor", "Azir", "Sylas", "Akali", "Yone"};
+
+    @Param({"20", "100"})
+    public int matchCount;
+
+    private RiotApiService riotApiService;
+    private List<MatchSummary> matches;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] payload;
+        try (InputStream in = ChampionPlayCountsBenchmark.class.getResourceAsStream("/match-v5.json")) {
+            payload = in.readAllBytes();
+        }
+        ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        Random random = new Random(42);
+        matches = new ArrayList<>(matchCount);
+        for (int i = 0; i < matchCount; i++) {
+            MatchV5Dto match = mapper.readValue(payload, MatchV5Dto.class);
+            ParticipantDto searched = match.getInfo().getParticipants().get(random.nextInt(10));
+            searched.setPuuid(SEARCHED_PUUID);
+            searched.setChampionName(CHAMPION_POOL[random.nextInt(CHAMPION_POOL.length)]);
+            matches.add(MatchSummary.from(match));
+        }
+        riotApiService = new RiotApiService((RiotApiClient) null, (PlayerLpRecordService) null, (SummonerSuggestionIndex) null, 8, Runnable::run);
+    }
+
+    @Benchmark
+    public Map<String, Long> championPlayCounts() {
+        return riotApiService.getChampionPlayCounts(matches, SEARCHED_PUUID);
+    }
+}
@@ -0,0 +1,81 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.PlayerLpRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The LP attribution sweep of {@link PlayerLpRecordService} over an already loaded timeline: one snapshot
+ * between consecutive games, every fourth game leaving the standing unchanged (one point with a longer run).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LpAttributionBenchmark {
+
+    private static final String PUUID = "bench-puuid";
+    private static final String QUEUE = "RANKED_SOLO_5x5";
+
+    @Param({"20", "100"})
+    public int matchCount;
+
+    private List<MatchSummary> matches;
+    private List<PlayerLpRecord> timeline;
+
+    @Setup
+    public void setUp() {
+        long start = Instant.parse("2024-10-01T00:00:00Z").toEpochMilli();
+        long gameSpacing = TimeUnit.HOURS.toMillis(1);
+        matches = new ArrayList<>(matchCount);
+        timeline = new ArrayList<>(matchCount + 1);
+
+        int leaguePoints = 50;
+        PlayerLpRecord last = snapshot(start - gameSpacing / 2, leaguePoints);
+        timeline.add(last);
+        for (int i = 0; i < matchCount; i++) {
+            long gameEnd = start + i * gameSpacing;
+            matches.add(match("EUW1_" + (7_000_000_000L + i), gameEnd));
+            if (i % 4 == 3) {
+                last.setLastSeenAt(Instant.ofEpochMilli(gameEnd + gameSpacing / 2));
+                continue;
+            }
+            leaguePoints = Math.floorMod(leaguePoints + (i % 3 == 0 ? -17 : 21), 100);
+            last = snapshot(gameEnd + gameSpacing / 2, leaguePoints);
+            timeline.add(last);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> attributeLpChanges() {
+        return PlayerLpRecordService.applyLpChanges(PUUID, QUEUE, matches, timeline);
+    }
+
+    private static PlayerLpRecord snapshot(long epochMillis, int leaguePoints) {
+        PlayerLpRecord record = new PlayerLpRecord(PUUID, QUEUE, Instant.ofEpochMilli(epochMillis), leaguePoints, "GOLD", "II");
+        record.setLastSeenAt(record.getTimestamp());
+        return record;
+    }
+
+    private static MatchSummary match(String matchId, long gameEndTimestamp) {
+        return MatchSummary.of(matchId, gameEndTimestamp, 1800, 420, "CLASSIC", List.of(), null);
+    }
+}
@@ -0,0 +1,55 @@
+package com.zerox80.riotapi.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ListUtils#partition} as the LP rollup uses it: splitting row IDs into 500-element batches and
+ * walking every batch once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"500"})
+    public int batchSize;
+
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() {
+        ids = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            ids.add(1_000_000L + i);
+        }
+    }
+
+    @Benchmark
+    public long partitionAndWalk() {
+        long checksum = 0;
+        for (List<Long> batch : ListUtils.partition(ids, batchSize)) {
+            checksum += batch.get(batch.size() - 1) + batch.size();
+        }
+        return checksum;
+    }
+}
@@ -0,0 +1,134 @@
+package com.zerox80.riotapi.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.zerox80.riotapi.model.MatchDetailsRecord;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchV5Dto;
+import com.zerox80.riotapi.repository.MatchDetailsRecordRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Second-level store for match details below the {@code matchDetails} Caffeine cache.
+ * <p>
+ * Match-v5 payloads are immutable once a game has ended, so entries are kept forever in the
+ * application database as gzip-compressed JSON of their {@link MatchSummary}. Rows written before the
+ * projection existed hold the full {@link MatchV5Dto} and are projected when read. Database access runs
+ * on a small dedicated pool to keep JDBC round trips off the HTTP client threads.
+ */
+@Component
+public class MatchDetailsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchDetailsStore.class);
+
+    private final MatchDetailsRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final ExecutorService executor;
+
+    public MatchDetailsStore(MatchDetailsRecordRepository repository,
+                             ObjectMapper objectMapper,
+                             @Value("${riot.api.match-store.enabled:true}") boolean enabled,
+                             @Value("${riot.api.match-store.threads:4}") int threads) {
+        this.repository = repository;
+        this.objectMapper = objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE);
+        this.enabled = enabled;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "match-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Looks up a stored match. Completes with null on a miss or if the store is unavailable.
+     */
+    public CompletableFuture<MatchSummary> find(String matchId) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.supplyAsync(() -> repository.findById(matchId)
+                        .map(record -> decode(record.getPayload()))
+                        .orElse(null), executor)
+                .exceptionally(ex -> {
+                    logger.warn("Reading match {} from the match store failed: {}", matchId, ex.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Persists a match in the background. The payload is serialised on the calling thread.
+     */
+    public void save(MatchSummary match) {
+        if (!enabled || match == null || match.getMatchId() == null) {
+            return;
+        }
+        String matchId = match.getMatchId();
+        byte[] payload;
+        try {
+            payload = encode(match);
+        } catch (IOException e) {
+            logger.warn("Could not serialise match {} for the match store: {}", matchId, e.getMessage());
+            return;
+        }
+        CompletableFuture.runAsync(() -> repository.save(new MatchDetailsRecord(matchId, payload, Instant.now())), executor)
+                .exceptionally(ex -> {
+                    logger.warn("Writing match {} to the match store failed: {}", matchId, ex.getMessage());
+                    return null;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Lets queued writes reach the database before the connection pool closes
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Match store writes still pending after 10 s; they are dropped on shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] encode(MatchSummary match) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            objectMapper.writeValue(out, match);
+        }
+        return buffer.toByteArray();
+    }
+
+    private MatchSummary decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            JsonNode tree = objectMapper.readTree(in);
+            if (tree.has("metadata") || tree.has("info")) {
+                return MatchSummary.from(objectMapper.treeToValue(tree, MatchV5Dto.class));
+            }
+            return objectMapper.treeToValue(tree, MatchSummary.class);
+        } catch (IOException e) {
+            throw new RiotApiRequestException("Stored match payload could not be decoded", e);
+        }
+    }
+}
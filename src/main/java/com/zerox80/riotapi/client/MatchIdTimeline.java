@@ -0,0 +1,94 @@
+package com.zerox80.riotapi.client;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Known match IDs of one player, newest first, together with the state needed to extend it incrementally:
+ * when the head was last synchronised and whether the end of the player's history has been reached.
+ * <p>
+ * Operations on a timeline are serialised through {@link #runExclusive(Supplier)}, so syncs for the same
+ * player never overlap and later callers reuse what earlier ones fetched.
+ */
+public final class MatchIdTimeline {
+
+    private final List<String> matchIds = new ArrayList<>();
+    private final Set<String> known = new HashSet<>();
+    private long headSyncedAtEpochSeconds;
+    private boolean complete;
+    private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+
+    /**
+     * Runs the asynchronous operation after all previously submitted operations on this timeline have finished.
+     */
+    synchronized <T> CompletableFuture<T> runExclusive(Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<T> result = tail.handle((v, t) -> null).thenCompose(v -> operation.get());
+        tail = result;
+        return result;
+    }
+
+    synchronized boolean hasSyncedHead() {
+        return headSyncedAtEpochSeconds > 0;
+    }
+
+    synchronized long headSyncedAtEpochSeconds() {
+        return headSyncedAtEpochSeconds;
+    }
+
+    synchronized void markHeadSynced(long epochSeconds) {
+        headSyncedAtEpochSeconds = epochSeconds;
+    }
+
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    synchronized void markComplete() {
+        complete = true;
+    }
+
+    public synchronized int size() {
+        return matchIds.size();
+    }
+
+    synchronized boolean contains(String matchId) {
+        return known.contains(matchId);
+    }
+
+    /**
+     * Prepends newer IDs (given newest first) that are not part of the timeline yet.
+     */
+    synchronized void prepend(List<String> newerIds) {
+        List<String> fresh = new ArrayList<>();
+        for (String matchId : newerIds) {
+            if (known.add(matchId)) {
+                fresh.add(matchId);
+            }
+        }
+        matchIds.addAll(0, fresh);
+    }
+
+    /**
+     * Appends older IDs (given newest first) below the current tail of the timeline.
+     *
+     * @return the number of IDs that were not known before.
+     */
+    synchronized int append(List<String> olderIds) {
+        int added = 0;
+        for (String matchId : olderIds) {
+            if (known.add(matchId)) {
+                matchIds.add(matchId);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    synchronized List<String> newest(int count) {
+        return new ArrayList<>(matchIds.subList(0, Math.min(count, matchIds.size())));
+    }
+}
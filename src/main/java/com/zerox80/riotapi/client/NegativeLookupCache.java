@@ -0,0 +1,56 @@
+package com.zerox80.riotapi.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Remembers lookups that Riot answered with 404, such as misspelled Riot IDs.
+ * <p>
+ * The async caches behind {@code @Cacheable} cannot hold a null result, so without this every repeated
+ * search for an unknown player would go out to Riot again. Entries expire after a short TTL so players
+ * that appear later (new accounts, renames) are found again.
+ */
+@Component
+public class NegativeLookupCache {
+
+    private final Cache<String, Boolean> misses;
+    private final MeterRegistry meterRegistry;
+
+    public NegativeLookupCache(@Value("${riot.api.negative-cache.ttl-seconds:300}") long ttlSeconds,
+                               @Value("${riot.api.negative-cache.max-entries:10000}") long maxEntries,
+                               MeterRegistry meterRegistry) {
+        this.misses = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns true if the lookup recently returned 404, counting the hit.
+     */
+    public boolean isKnownMissing(String type, String key) {
+        if (misses.getIfPresent(type + ":" + key) == null) {
+            return false;
+        }
+        counter("riot.cache.negative.hits", type).increment();
+        return true;
+    }
+
+    public void recordMissing(String type, String key) {
+        misses.put(type + ":" + key, Boolean.TRUE);
+        counter("riot.cache.negative.stores", type).increment();
+    }
+
+    private Counter counter(String name, String type) {
+        return Counter.builder(name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,388 @@
+package com.zerox80.riotapi.client;
+
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.ParticipantSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Off-heap tier for match details between the {@code matchDetails} Caffeine cache and the {@link MatchDetailsStore}.
+ * <p>
+ * Matches are kept in a compact binary form in direct {@link ByteBuffer} slabs that are written as a ring: when the
+ * write position moves on to a slab that is still in use, every match in that slab is evicted at once (FIFO per
+ * slab). The only on-heap state is an open-addressing index from a 64-bit hash of the match ID to the slab and
+ * offset of its record, held in two {@code long} arrays, so millions of entries add no objects for the GC to trace.
+ * The match ID is stored in the record and checked on read, which turns a hash collision into a miss.
+ * <p>
+ * Capacity is given in bytes ({@code riot.cache.off-heap.capacity-mb}) and slabs are allocated on first use. Direct
+ * memory counts against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ */
+@Component
+public class OffHeapMatchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapMatchCache.class);
+
+    // Record header: total length (int) and key hash (long)
+    private static final int HEADER_BYTES = 4 + 8;
+    private static final int FORMAT_VERSION = 1;
+
+    private final boolean enabled;
+    private final int slabBytes;
+    private final ByteBuffer[] slabs;
+    private final int[] slabEnds;
+    private final OffsetIndex index = new OffsetIndex(1024);
+    private int currentSlab;
+    private int writeOffset;
+    private long usedBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public OffHeapMatchCache(@Value("${riot.cache.off-heap.enabled:true}") boolean enabled,
+                             @Value("${riot.cache.off-heap.capacity-mb:256}") long capacityMb,
+                             @Value("${riot.cache.off-heap.slab-mb:8}") int slabMb,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled && capacityMb > 0;
+        this.slabBytes = (int) Math.min(Integer.MAX_VALUE, Math.max(1, slabMb) * 1024L * 1024L);
+        int slabCount = (int) Math.max(2, capacityMb * 1024L * 1024L / slabBytes);
+        this.slabs = new ByteBuffer[slabCount];
+        this.slabEnds = new int[slabCount];
+
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.evictions = Counter.builder("riot.cache.offheap.evictions")
+                .description("Matches dropped from the off-heap tier to make room")
+                .register(meterRegistry);
+        Gauge.builder("riot.cache.offheap.entries", this, OffHeapMatchCache::size)
+                .description("Matches held in the off-heap tier")
+                .register(meterRegistry);
+        Gauge.builder("riot.cache.offheap.used.bytes", this, OffHeapMatchCache::usedBytes)
+                .description("Bytes of live match records in the off-heap slabs")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("riot.cache.offheap.capacity.bytes", () -> (double) slabs.length * slabBytes)
+                .description("Configured capacity of the off-heap slabs")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        if (this.enabled) {
+            logger.info("Off-heap match cache: {} slabs of {} MB", slabCount, slabBytes / (1024 * 1024));
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("riot.cache.offheap.requests")
+                .description("Off-heap match cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached match or null. The record is copied out under the lock and decoded outside of it.
+     */
+    public MatchSummary get(String matchId) {
+        if (!enabled || matchId == null) {
+            return null;
+        }
+        long key = hash(matchId);
+        byte[] payload;
+        synchronized (this) {
+            long location = index.get(key);
+            if (location < 0) {
+                misses.increment();
+                return null;
+            }
+            ByteBuffer slab = slabs[slabOf(location)];
+            int offset = offsetOf(location);
+            payload = new byte[slab.getInt(offset) - HEADER_BYTES];
+            slab.get(offset + HEADER_BYTES, payload);
+        }
+        MatchSummary match;
+        try {
+            match = decode(payload);
+        } catch (IOException e) {
+            logger.warn("Off-heap record for match {} could not be decoded: {}", matchId, e.getMessage());
+            misses.increment();
+            return null;
+        }
+        if (!matchId.equals(match.getMatchId())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return match;
+    }
+
+    /**
+     * Stores a match unless it is already cached. Matches are immutable, so an existing record is never replaced.
+     */
+    public void put(MatchSummary match) {
+        if (!enabled || match == null || match.getMatchId() == null) {
+            return;
+        }
+        byte[] payload;
+        try {
+            payload = encode(match);
+        } catch (IOException e) {
+            logger.warn("Match {} could not be encoded for the off-heap cache: {}", match.getMatchId(), e.getMessage());
+            return;
+        }
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > slabBytes) {
+            logger.debug("Match {} ({} bytes) does not fit into an off-heap slab", match.getMatchId(), recordBytes);
+            return;
+        }
+        long key = hash(match.getMatchId());
+        synchronized (this) {
+            if (index.get(key) >= 0) {
+                return;
+            }
+            if (writeOffset + recordBytes > slabBytes) {
+                currentSlab = (currentSlab + 1) % slabs.length;
+                evictSlab(currentSlab);
+                writeOffset = 0;
+            }
+            ByteBuffer slab = slabs[currentSlab];
+            if (slab == null) {
+                slab = ByteBuffer.allocateDirect(slabBytes);
+                slabs[currentSlab] = slab;
+            }
+            slab.putInt(writeOffset, recordBytes);
+            slab.putLong(writeOffset + 4, key);
+            slab.put(writeOffset + HEADER_BYTES, payload);
+            index.put(key, location(currentSlab, writeOffset));
+            writeOffset += recordBytes;
+            slabEnds[currentSlab] = writeOffset;
+            usedBytes += recordBytes;
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private void evictSlab(int slabIndex) {
+        ByteBuffer slab = slabs[slabIndex];
+        int offset = 0;
+        int evicted = 0;
+        while (offset < slabEnds[slabIndex]) {
+            int recordBytes = slab.getInt(offset);
+            index.remove(slab.getLong(offset + 4), location(slabIndex, offset));
+            usedBytes -= recordBytes;
+            offset += recordBytes;
+            evicted++;
+        }
+        slabEnds[slabIndex] = 0;
+        if (evicted > 0) {
+            evictions.increment(evicted);
+        }
+    }
+
+    private static long location(int slab, int offset) {
+        return ((long) slab << 32) | offset;
+    }
+
+    private static int slabOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    /**
+     * 64-bit FNV-1a of the match ID, finished with the MurmurHash3 mixer. 0 marks an empty index slot.
+     */
+    static long hash(String matchId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < matchId.length(); i++) {
+            h ^= matchId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    static byte[] encode(MatchSummary match) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(FORMAT_VERSION);
+            writeString(out, match.getMatchId());
+            out.writeLong(match.getGameEndTimestamp());
+            out.writeInt(match.getGameDuration());
+            out.writeInt(match.getQueueId());
+            writeString(out, match.getGameMode());
+            List<ParticipantSummary> participants = match.getParticipants();
+            out.writeShort(participants.size());
+            for (ParticipantSummary participant : participants) {
+                writeString(out, participant.getPuuid());
+                writeString(out, participant.getChampionName());
+                writeString(out, participant.getRiotIdGameName());
+                writeString(out, participant.getRiotIdTagline());
+                writeString(out, participant.getSummonerName());
+                out.writeShort(participant.getKills());
+                out.writeShort(participant.getDeaths());
+                out.writeShort(participant.getAssists());
+                out.writeShort(participant.getTeamId());
+                out.writeBoolean(participant.isWin());
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    static MatchSummary decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unknown off-heap record version " + version);
+            }
+            String matchId = readString(in);
+            long gameEndTimestamp = in.readLong();
+            int gameDuration = in.readInt();
+            int queueId = in.readInt();
+            String gameMode = readString(in);
+            int count = in.readUnsignedShort();
+            List<MatchSummary.Participant> participants = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                participants.add(new MatchSummary.Participant(readString(in), readString(in), readString(in),
+                        readString(in), readString(in), in.readShort(), in.readShort(), in.readShort(),
+                        in.readShort(), in.readBoolean()));
+            }
+            return MatchSummary.of(matchId, gameEndTimestamp, gameDuration, queueId, gameMode, participants, null);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Open-addressing hash table from non-zero {@code long} keys to {@code long} values with linear probing and
+     * backward-shift deletion, so lookups never have to skip tombstones.
+     */
+    static final class OffsetIndex {
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+
+        OffsetIndex(int initialCapacity) {
+            int capacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1);
+            keys = new long[capacity];
+            values = new long[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * @return the value, or -1 if the key is absent.
+         */
+        long get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = spread(key) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, long value) {
+            if ((size + 1) * 4L > keys.length * 3L) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = spread(key) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /**
+         * Removes the key only while it still maps to {@code value}.
+         */
+        void remove(long key, long value) {
+            int mask = keys.length - 1;
+            int slot = spread(key) & mask;
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    if (values[slot] == value) {
+                        deleteAt(slot);
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void deleteAt(int slot) {
+            int mask = keys.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+                int home = spread(keys[next]) & mask;
+                // Move the entry back unless its home slot lies cyclically in (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    values[hole] = values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = 0;
+            size--;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            keys = new long[capacity];
+            values = new long[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int spread(long key) {
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.zerox80.riotapi.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single flight for outbound Riot calls: while a request for a key is in flight, identical requests join it
+ * instead of being sent again. Keys are the fully resolved request URL, plus the credential where the response
+ * depends on the caller (RSO bearer calls).
+ * <p>
+ * Every caller receives its own {@linkplain CompletableFuture#copy() copy} of the shared future, so cancelling or
+ * completing one does not affect the other waiters. The key is released as soon as the call completes; later
+ * requests go out again (or hit the caches in front of the client).
+ */
+final class RequestCoalescer {
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final RiotApiMetrics metrics;
+
+    RequestCoalescer(RiotApiMetrics metrics) {
+        this.metrics = metrics;
+        metrics.registerInFlight(inFlight);
+    }
+
+    <T> CompletableFuture<T> execute(String key, String requestType, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            metrics.coalesced(requestType, true);
+            return existing.copy();
+        }
+        metrics.coalesced(requestType, false);
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, throwable) -> {
+            inFlight.remove(key, shared);
+            if (throwable != null) {
+                shared.completeExceptionally(throwable);
+            } else {
+                shared.complete(value);
+            }
+        });
+        return shared.copy();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.zerox80.riotapi.client;
+
+/**
+ * Priority classes for outbound Riot requests, highest first.
+ */
+public enum RequestPriority {
+    /** A user is waiting on the result, e.g. a /search request. */
+    INTERACTIVE,
+    /** Speculative work such as cache refreshes that should finish soon but may yield. */
+    PREFETCH,
+    /** Background crawling that only uses capacity nobody else needs. */
+    BULK
+}
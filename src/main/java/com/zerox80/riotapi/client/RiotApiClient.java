@@ -1,12 +1,15 @@
 package com.zerox80.riotapi.client;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.zerox80.riotapi.model.AccountDto;
 import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
 import com.zerox80.riotapi.model.MatchV5Dto;
 import com.zerox80.riotapi.model.Summoner;
 import org.slf4j.Logger;
@@ -17,6 +20,7 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URLEncoder;
@@ -25,13 +29,17 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
 
 @Component
 public class RiotApiClient {
@@ -43,23 +51,54 @@ public class RiotApiClient {
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final String communityDragonUrl;
+    private final RiotRateLimiter rateLimiter;
+    private final RiotRequestScheduler requestScheduler;
+    private final MatchDetailsStore matchDetailsStore;
+    private final OffHeapMatchCache offHeapMatchCache;
+    private final Cache<String, MatchIdTimeline> matchIdTimelines;
+    private final NegativeLookupCache negativeLookups;
+    private final RiotApiMetrics metrics;
+    private final RequestCoalescer coalescer;
+    private final long matchIdHeadSyncSeconds;
+    private final String baseUrlTemplate;
+
+    /** Distinguishes summoner-ID keys from PUUID keys in the shared leagueEntries cache. */
+    public static final String SUMMONER_ID_KEY_PREFIX = "summoner:";
 
     private static final TypeReference<List<LeagueEntryDTO>> LEAGUE_LIST_TYPE = new TypeReference<>() {};
     private static final TypeReference<List<String>> MATCH_ID_LIST_TYPE = new TypeReference<>() {};
+    private static final int MATCH_ID_PAGE_SIZE = 100;
+    private static final long MATCH_ID_SYNC_OVERLAP_SECONDS = 2 * 60 * 60;
 
     @Autowired
     public RiotApiClient(@Value("${riot.api.key}") String apiKey,
                          @Value("${riot.api.region}") String platformRegion,
                          @Value("${riot.api.community-dragon.url}") String communityDragonUrl,
-                         ObjectMapper objectMapper) {
+                         ObjectMapper objectMapper,
+                         RiotRateLimiter rateLimiter,
+                         RiotRequestScheduler requestScheduler,
+                         MatchDetailsStore matchDetailsStore,
+                         OffHeapMatchCache offHeapMatchCache,
+                         Cache<String, MatchIdTimeline> matchIdTimelines,
+                         NegativeLookupCache negativeLookups,
+                         RiotApiMetrics metrics,
+                         @Value("${riot.api.match-ids.head-sync-seconds:120}") long matchIdHeadSyncSeconds,
+                         @Value("${riot.api.base-url:https://{route}.api.riotgames.com}") String baseUrlTemplate) {
         this.apiKey = apiKey;
         this.platformRegion = platformRegion.toLowerCase();
         this.regionalRoute = determineRegionalRoute(this.platformRegion);
         this.communityDragonUrl = communityDragonUrl;
-        // Copy and harden the mapper: Riot APIs use lowerCamelCase; ignore unknown fields
-        this.objectMapper = objectMapper.copy()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE);
+        this.rateLimiter = rateLimiter;
+        this.requestScheduler = requestScheduler;
+        this.matchDetailsStore = matchDetailsStore;
+        this.offHeapMatchCache = offHeapMatchCache;
+        this.matchIdTimelines = matchIdTimelines;
+        this.negativeLookups = negativeLookups;
+        this.metrics = metrics;
+        this.coalescer = new RequestCoalescer(metrics);
+        this.matchIdHeadSyncSeconds = matchIdHeadSyncSeconds;
+        this.baseUrlTemplate = baseUrlTemplate;
+        this.objectMapper = riotMapper(objectMapper);
         ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
         this.httpClient = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_2)
@@ -72,10 +111,29 @@ public class RiotApiClient {
         }
     }
 
+    /**
+     * Copies and hardens the application mapper for Riot payloads: lowerCamelCase, unknown fields ignored.
+     * Blackbird replaces reflective setters with generated lambdas for faster databinding.
+     */
+    static ObjectMapper riotMapper(ObjectMapper objectMapper) {
+        return objectMapper.copy()
+                .registerModule(new BlackbirdModule())
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .setPropertyNamingStrategy(PropertyNamingStrategies.LOWER_CAMEL_CASE);
+    }
+
     public String getProfileIconUrl(int iconId) {
         return communityDragonUrl + "/" + iconId + ".jpg";
     }
 
+    /**
+     * Resolves {@code riot.api.base-url} for a platform ({@code euw1}) or regional ({@code europe}) route.
+     * The {@code {route}} placeholder is optional, so a local stub can serve every route from one address.
+     */
+    private String baseUrl(String route) {
+        return baseUrlTemplate.replace("{route}", route);
+    }
+
     private String determineRegionalRoute(String platform) {
         switch (platform) {
             case "euw1", "eun1", "tr1", "ru", "me1":
@@ -92,48 +150,75 @@ public class RiotApiClient {
         }
     }
 
-    private <T> CompletableFuture<T> sendApiRequestAsync(String url, Class<T> responseClass, String requestType) {
-        return sendRequest(url, requestType)
-                .thenApply(response -> parseResponse(response, responseClass, requestType, url));
+    /**
+     * Identical concurrent requests share one call (see {@link RequestCoalescer}). The first caller's priority decides
+     * how the shared call is scheduled.
+     */
+    private <T> CompletableFuture<T> sendApiRequestAsync(String url, Class<T> responseClass, String requestType, RequestPriority priority) {
+        return coalescer.execute(url, requestType, () -> sendRequest(url, requestType, priority)
+                .thenApply(response -> parseResponse(response, responseClass, requestType, url)));
     }
 
-    private <T> CompletableFuture<T> sendApiRequestAsync(String url, TypeReference<T> typeReference, String requestType) {
-        return sendRequest(url, requestType)
-                .thenApply(response -> parseResponse(response, typeReference, requestType, url));
+    private <T> CompletableFuture<T> sendApiRequestAsync(String url, TypeReference<T> typeReference, String requestType, RequestPriority priority) {
+        return coalescer.execute(url, requestType, () -> sendRequest(url, requestType, priority)
+                .thenApply(response -> parseResponse(response, typeReference, requestType, url)));
     }
 
     private static final int MAX_ATTEMPTS = 3;
     private static final Duration BASE_BACKOFF = Duration.ofSeconds(2);
 
-    private CompletableFuture<HttpResponse<String>> sendRequest(String url, String requestType) {
+    private CompletableFuture<HttpResponse<InputStream>> sendRequest(String url, String requestType, RequestPriority priority) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .header("X-Riot-Token", this.apiKey)
                 .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
                 .header("User-Agent", "SummonerAPI/2.0 (github.com/zerox80/SummonerAPI)")
                 .timeout(Duration.ofSeconds(15))
                 .build();
-        return sendWithRetry(request, requestType, url, 1);
+        return sendWithRetry(request, requestType, url, priority, 1);
     }
 
-    private CompletableFuture<HttpResponse<String>> sendRequestWithBearer(String url, String requestType, String bearerToken) {
+    private CompletableFuture<HttpResponse<InputStream>> sendRequestWithBearer(String url, String requestType, String bearerToken) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .header("Authorization", "Bearer " + bearerToken)
                 .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
                 .header("User-Agent", "SummonerAPI/2.0 (github.com/zerox80/SummonerAPI)")
                 .timeout(Duration.ofSeconds(15))
                 .build();
-        return sendWithRetry(request, requestType, url, 1);
+        return sendWithRetry(request, requestType, url, RequestPriority.INTERACTIVE, 1);
     }
 
-    private CompletableFuture<HttpResponse<String>> sendWithRetry(HttpRequest request, String requestType, String url, int attempt) {
-        return httpClient
-                .sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .handle((response, throwable) -> new Object[]{response, throwable})
+    private CompletableFuture<HttpResponse<InputStream>> sendWithRetry(HttpRequest request, String requestType, String url, RequestPriority priority, int attempt) {
+        // Only requests signed with our API key count against the application budget; RSO calls do not
+        boolean usesAppKey = request.headers().firstValue("X-Riot-Token").isPresent();
+        String host = request.uri().getAuthority();
+        // Set when the request actually leaves, so scheduler queueing is not counted as Riot latency
+        long[] sentAt = {System.nanoTime()};
+        Supplier<CompletableFuture<HttpResponse<InputStream>>> send = () -> {
+            sentAt[0] = System.nanoTime();
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        };
+        CompletableFuture<HttpResponse<InputStream>> sent = usesAppKey
+                ? requestScheduler.submit(priority, host, requestType, send)
+                : send.get();
+        return sent
+                .handle((response, throwable) -> {
+                    metrics.recordAttempt(requestType, response != null ? String.valueOf(response.statusCode()) : RiotApiMetrics.NO_RESPONSE,
+                            System.nanoTime() - sentAt[0]);
+                    if (response != null && response.statusCode() == 429) {
+                        metrics.rateLimited(requestType);
+                    }
+                    if (usesAppKey && response != null) {
+                        rateLimiter.onResponse(host, requestType, response.statusCode(), response.headers());
+                    }
+                    return new Object[]{response, throwable};
+                })
                 .thenCompose(pair -> {
                     @SuppressWarnings("unchecked")
-                    HttpResponse<String> response = (HttpResponse<String>) pair[0];
+                    HttpResponse<InputStream> response = (HttpResponse<InputStream>) pair[0];
                     Throwable throwable = (Throwable) pair[1];
 
                     if (throwable != null) {
@@ -141,27 +226,35 @@ public class RiotApiClient {
                             Duration delay = computeBackoffDelay(attempt, Optional.empty());
                             logger.warn("Request {} to {} failed (attempt {}/{}). Retrying in {} ms. Cause: {}",
                                     requestType, url, attempt, MAX_ATTEMPTS, delay.toMillis(), throwable.toString());
-                            return delayed(delay).thenCompose(v -> sendWithRetry(request, requestType, url, attempt + 1));
+                            metrics.retry(requestType, RiotApiMetrics.NO_RESPONSE);
+                            return delayed(delay).thenCompose(v -> sendWithRetry(request, requestType, url, priority, attempt + 1));
                         }
-                        CompletableFuture<HttpResponse<String>> failed = new CompletableFuture<>();
+                        metrics.retriesExhausted(requestType);
+                        CompletableFuture<HttpResponse<InputStream>> failed = new CompletableFuture<>();
                         failed.completeExceptionally(throwable);
                         return failed;
                     }
 
                     int status = response.statusCode();
-                    if ((status == 429 || (status >= 500 && status < 600)) && attempt < MAX_ATTEMPTS) {
+                    if (status == 429 || (status >= 500 && status < 600)) {
+                        if (attempt >= MAX_ATTEMPTS) {
+                            metrics.retriesExhausted(requestType);
+                            return CompletableFuture.completedFuture(response);
+                        }
+                        closeQuietly(response);
                         Optional<Long> retryAfterSeconds = parseRetryAfterSeconds(response);
                         Duration delay = computeBackoffDelay(attempt, retryAfterSeconds);
                         logger.warn("Request {} to {} returned {}. Retrying in {} ms (attempt {}/{}).",
                                 requestType, url, status, delay.toMillis(), attempt, MAX_ATTEMPTS);
-                        return delayed(delay).thenCompose(v -> sendWithRetry(request, requestType, url, attempt + 1));
+                        metrics.retry(requestType, String.valueOf(status));
+                        return delayed(delay).thenCompose(v -> sendWithRetry(request, requestType, url, priority, attempt + 1));
                     }
 
                     return CompletableFuture.completedFuture(response);
                 });
     }
 
-    private Optional<Long> parseRetryAfterSeconds(HttpResponse<String> response) {
+    private Optional<Long> parseRetryAfterSeconds(HttpResponse<InputStream> response) {
         return response.headers().firstValue("Retry-After").flatMap(value -> {
             try {
                 return Optional.of(Long.parseLong(value.trim()));
@@ -184,86 +277,168 @@ public class RiotApiClient {
         return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS)).thenAccept(v -> {});
     }
 
-    private <T> T parseResponse(HttpResponse<String> response, Class<T> responseClass, String requestType, String url) {
+    private <T> T parseResponse(HttpResponse<InputStream> response, Class<T> responseClass, String requestType, String url) {
+        return parseResponse(response, objectMapper.readerFor(responseClass), requestType, url);
+    }
+
+    private <T> T parseResponse(HttpResponse<InputStream> response, TypeReference<T> typeReference, String requestType, String url) {
+        return parseResponse(response, objectMapper.readerFor(typeReference), requestType, url);
+    }
+
+    /**
+     * Decodes the body straight from the (possibly gzip-compressed) byte stream. The raw body is only
+     * materialised as a String for non-200 responses, where it is needed for error logging.
+     */
+    private <T> T parseResponse(HttpResponse<InputStream> response, ObjectReader reader, String requestType, String url) {
         if (response.statusCode() == 200) {
-            try {
-                return objectMapper.readValue(response.body(), responseClass);
-            } catch (JsonProcessingException e) {
+            try (InputStream body = decodedBody(response)) {
+                return reader.readValue(body);
+            } catch (IOException e) {
                 throw new RiotApiRequestException("Failed to parse API response for " + requestType, e);
             }
         } else if (response.statusCode() == 404) {
+            closeQuietly(response);
             logger.warn("API Request ({}) to URL '{}' returned 404 Not Found.", requestType, url);
             return null;
         } else {
-            logger.error("API Request Failed ({}): {} - {} for URL: {}", requestType, response.statusCode(), response.body(), url);
-            throw new RiotApiRequestException("API request (" + requestType + ") failed with status code: " + response.statusCode() + "; Body: " + response.body());
+            String body = readBodyForLogging(response);
+            logger.error("API Request Failed ({}): {} - {} for URL: {}", requestType, response.statusCode(), body, url);
+            throw new RiotApiRequestException("API request (" + requestType + ") failed with status code: " + response.statusCode() + "; Body: " + body);
         }
     }
 
-    private <T> T parseResponse(HttpResponse<String> response, TypeReference<T> typeReference, String requestType, String url) {
-        if (response.statusCode() == 200) {
-            try {
-                return objectMapper.readValue(response.body(), typeReference);
-            } catch (JsonProcessingException e) {
-                throw new RiotApiRequestException("Failed to parse API response for " + requestType, e);
-            }
-        } else if (response.statusCode() == 404) {
-            logger.warn("API Request ({}) to URL '{}' returned 404 Not Found.", requestType, url);
-            return null;
-        } else {
-            logger.error("API Request Failed ({}): {} - {} for URL: {}", requestType, response.statusCode(), response.body(), url);
-            throw new RiotApiRequestException("API request (" + requestType + ") failed with status code: " + response.statusCode() + "; Body: " + response.body());
+    private static InputStream decodedBody(HttpResponse<InputStream> response) throws IOException {
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.trim().equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzipped ? new GZIPInputStream(response.body()) : response.body();
+    }
+
+    private static String readBodyForLogging(HttpResponse<InputStream> response) {
+        try (InputStream body = decodedBody(response)) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "<unreadable body: " + e.getMessage() + ">";
+        }
+    }
+
+    private static void closeQuietly(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException e) {
+            logger.debug("Failed to close response body: {}", e.getMessage());
         }
     }
 
-    @Cacheable(value = "accounts", key = "#gameName.toLowerCase() + '#' + #tagLine.toLowerCase()")
+    @Cacheable(value = "accounts", key = "#gameName.toLowerCase() + '#' + #tagLine.toLowerCase()", sync = true)
     public CompletableFuture<AccountDto> getAccountByRiotId(String gameName, String tagLine) {
+        return lookupAccountByRiotId(gameName, tagLine, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Uncached lookup shared by {@link #getAccountByRiotId(String, String)} and its refresh: answers null without
+     * a request for Riot IDs that recently returned 404 and remembers new 404s in the {@link NegativeLookupCache}.
+     */
+    public CompletableFuture<AccountDto> lookupAccountByRiotId(String gameName, String tagLine, RequestPriority priority) {
+        String riotId = gameName.toLowerCase() + "#" + tagLine.toLowerCase();
+        if (negativeLookups.isKnownMissing("account", riotId)) {
+            logger.debug(">>> RiotApiClient (Account): {} is known to be missing, skipping request", riotId);
+            return CompletableFuture.completedFuture(null);
+        }
+        return fetchAccountByRiotId(gameName, tagLine, priority)
+                .thenApply(account -> {
+                    if (account == null) {
+                        negativeLookups.recordMissing("account", riotId);
+                    }
+                    return account;
+                });
+    }
+
+    /**
+     * Uncached variant of {@link #getAccountByRiotId(String, String)} for callers that choose their own priority.
+     */
+    public CompletableFuture<AccountDto> fetchAccountByRiotId(String gameName, String tagLine, RequestPriority priority) {
         String encodedGameName = URLEncoder.encode(gameName, StandardCharsets.UTF_8).replace("+", "%20");
         String encodedTagLine = URLEncoder.encode(tagLine, StandardCharsets.UTF_8);
 
-        String host = this.regionalRoute + ".api.riotgames.com";
         String path = "/riot/account/v1/accounts/by-riot-id/" + encodedGameName + "/" + encodedTagLine;
-        String url = "https://" + host + path;
+        String url = baseUrl(this.regionalRoute) + path;
 
         logger.debug(">>> RiotApiClient (Account): Requesting RAW Riot ID: [{}#{}]", gameName, tagLine);
         logger.debug(">>> RiotApiClient (Account): Requesting ENCODED URL: [{}]", url);
 
-        return sendApiRequestAsync(url, AccountDto.class, "Account");
+        return sendApiRequestAsync(url, AccountDto.class, "Account", priority);
     }
 
-    @Cacheable(value = "summoners", key = "#puuid")
+    @Cacheable(value = "summoners", key = "#puuid", sync = true)
     public CompletableFuture<Summoner> getSummonerByPuuid(String puuid) {
-        String host = this.platformRegion + ".api.riotgames.com";
+        return lookupSummonerByPuuid(puuid, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Uncached lookup shared by {@link #getSummonerByPuuid(String)} and its refresh, checking and filling the
+     * {@link NegativeLookupCache} like {@link #lookupAccountByRiotId}.
+     */
+    public CompletableFuture<Summoner> lookupSummonerByPuuid(String puuid, RequestPriority priority) {
+        if (negativeLookups.isKnownMissing("summoner", puuid)) {
+            logger.debug(">>> RiotApiClient (Summoner): {} is known to be missing, skipping request", puuid);
+            return CompletableFuture.completedFuture(null);
+        }
+        return fetchSummonerByPuuid(puuid, priority)
+                .thenApply(summoner -> {
+                    if (summoner == null) {
+                        negativeLookups.recordMissing("summoner", puuid);
+                    }
+                    return summoner;
+                });
+    }
+
+    /**
+     * Uncached variant of {@link #getSummonerByPuuid(String)} for callers that choose their own priority.
+     */
+    public CompletableFuture<Summoner> fetchSummonerByPuuid(String puuid, RequestPriority priority) {
         String path = "/lol/summoner/v4/summoners/by-puuid/" + puuid;
-        String url = "https://" + host + path;
+        String url = baseUrl(this.platformRegion) + path;
         logger.debug(">>> RiotApiClient (Summoner): Requesting URL: [{}]", url);
-        return sendApiRequestAsync(url, Summoner.class, "Summoner");
+        return sendApiRequestAsync(url, Summoner.class, "Summoner", priority);
     }
 
     /**
      * Fetches league entries (rank, tier, etc.) by the encrypted summoner ID.
      * Official endpoint: /lol/league/v4/entries/by-summoner/{encryptedSummonerId}
      */
-    @Cacheable(value = "leagueEntries", key = "#summonerId")
+    @Cacheable(value = "leagueEntries", key = "T(com.zerox80.riotapi.client.RiotApiClient).SUMMONER_ID_KEY_PREFIX + #summonerId", sync = true)
     public CompletableFuture<List<LeagueEntryDTO>> getLeagueEntriesBySummonerId(String summonerId) {
-        String host = this.platformRegion + ".api.riotgames.com";
+        return fetchLeagueEntriesBySummonerId(summonerId, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Uncached variant of {@link #getLeagueEntriesBySummonerId(String)} for callers that choose their own priority.
+     */
+    public CompletableFuture<List<LeagueEntryDTO>> fetchLeagueEntriesBySummonerId(String summonerId, RequestPriority priority) {
         String path = "/lol/league/v4/entries/by-summoner/" + summonerId;
-        String url = "https://" + host + path;
+        String url = baseUrl(this.platformRegion) + path;
         logger.debug(">>> RiotApiClient (LeagueEntries): Requesting URL: [{}]", url);
-        return sendApiRequestAsync(url, LEAGUE_LIST_TYPE, "LeagueEntries");
+        return sendApiRequestAsync(url, LEAGUE_LIST_TYPE, "LeagueEntries", priority);
     }
 
     /**
      * Fetches league entries using PUUID to prepare for removal of SummonerIDs from payloads.
      * Official endpoint: /lol/league/v4/entries/by-puuid/{puuid}
      */
-    @Cacheable(value = "leagueEntries", key = "#puuid")
+    @Cacheable(value = "leagueEntries", key = "#puuid", sync = true)
     public CompletableFuture<List<LeagueEntryDTO>> getLeagueEntriesByPuuid(String puuid) {
-        String host = this.platformRegion + ".api.riotgames.com";
+        return fetchLeagueEntriesByPuuid(puuid, RequestPriority.INTERACTIVE);
+    }
+
+    /**
+     * Uncached variant of {@link #getLeagueEntriesByPuuid(String)} for callers that choose their own priority.
+     */
+    public CompletableFuture<List<LeagueEntryDTO>> fetchLeagueEntriesByPuuid(String puuid, RequestPriority priority) {
         String path = "/lol/league/v4/entries/by-puuid/" + puuid;
-        String url = "https://" + host + path;
+        String url = baseUrl(this.platformRegion) + path;
         logger.debug(">>> RiotApiClient (LeagueEntries PUUID): Requesting URL: [{}]", url);
-        return sendApiRequestAsync(url, LEAGUE_LIST_TYPE, "LeagueEntriesByPuuid");
+        return sendApiRequestAsync(url, LEAGUE_LIST_TYPE, "LeagueEntriesByPuuid", priority);
     }
 
     /**
@@ -271,30 +446,135 @@ public class RiotApiClient {
      * Requires an OAuth 2.0 Bearer token (RSO), not the X-Riot-Token.
      */
     public CompletableFuture<Summoner> getSummonerMeWithBearer(String bearerToken) {
-        String host = this.platformRegion + ".api.riotgames.com";
         String path = "/lol/summoner/v4/summoners/me";
-        String url = "https://" + host + path;
+        String url = baseUrl(this.platformRegion) + path;
         logger.debug(">>> RiotApiClient (SummonerMe RSO): Requesting URL: [{}]", url);
-        return sendRequestWithBearer(url, "SummonerMeRSO", bearerToken)
-                .thenApply(response -> parseResponse(response, Summoner.class, "SummonerMeRSO", url));
+        // The response depends on the token, so only calls with the same token are joined
+        return coalescer.execute(url + " " + bearerToken, "SummonerMeRSO", () -> sendRequestWithBearer(url, "SummonerMeRSO", bearerToken)
+                .thenApply(response -> parseResponse(response, Summoner.class, "SummonerMeRSO", url)));
     }
 
-    @Cacheable(value = "matchIds", key = "#puuid + '-' + #count")
+    /**
+     * Serves the newest {@code count} match IDs from the player's {@link MatchIdTimeline}. Only IDs newer than the
+     * last head sync (via {@code startTime}) and pages below the known tail (via {@code start}) are requested,
+     * so any count is answered from the same merged timeline.
+     */
     public CompletableFuture<List<String>> getMatchIdsByPuuid(String puuid, int count) {
-        String host = this.regionalRoute + ".api.riotgames.com";
-        String path = "/lol/match/v5/matches/by-puuid/" + puuid + "/ids?count=" + count;
-        String url = "https://" + host + path;
+        MatchIdTimeline timeline = matchIdTimelines.get(puuid, key -> new MatchIdTimeline());
+        return timeline.runExclusive(() -> syncTimelineHead(puuid, timeline)
+                .thenCompose(v -> extendTimelineTail(puuid, timeline, count))
+                .thenApply(v -> {
+                    // Re-insert so the cache re-weighs the grown timeline
+                    matchIdTimelines.put(puuid, timeline);
+                    return timeline.newest(count);
+                }));
+    }
+
+    private CompletableFuture<Void> syncTimelineHead(String puuid, MatchIdTimeline timeline) {
+        long now = Instant.now().getEpochSecond();
+        if (!timeline.hasSyncedHead()) {
+            // Nothing known yet: the tail extension fetches the newest page from offset 0
+            timeline.markHeadSynced(now);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (now - timeline.headSyncedAtEpochSeconds() < matchIdHeadSyncSeconds) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Overlap the previous sync so games that were still running at that time are not missed
+        long startTime = timeline.headSyncedAtEpochSeconds() - MATCH_ID_SYNC_OVERLAP_SECONDS;
+        return fetchIdsNewerThanTimeline(puuid, timeline, startTime, 0, new ArrayList<>())
+                .thenAccept(newerIds -> {
+                    timeline.prepend(newerIds);
+                    timeline.markHeadSynced(now);
+                    logger.debug(">>> RiotApiClient (MatchIds): {} new match IDs for {}", newerIds.size(), puuid);
+                });
+    }
+
+    private CompletableFuture<List<String>> fetchIdsNewerThanTimeline(String puuid, MatchIdTimeline timeline, long startTime,
+                                                                      int start, List<String> collected) {
+        return fetchMatchIdPage(puuid, startTime, start, MATCH_ID_PAGE_SIZE, RequestPriority.INTERACTIVE)
+                .thenCompose(page -> {
+                    List<String> ids = page != null ? page : List.of();
+                    for (String matchId : ids) {
+                        if (timeline.contains(matchId)) {
+                            return CompletableFuture.completedFuture(collected);
+                        }
+                        collected.add(matchId);
+                    }
+                    if (ids.size() < MATCH_ID_PAGE_SIZE) {
+                        return CompletableFuture.completedFuture(collected);
+                    }
+                    return fetchIdsNewerThanTimeline(puuid, timeline, startTime, start + MATCH_ID_PAGE_SIZE, collected);
+                });
+    }
+
+    private CompletableFuture<Void> extendTimelineTail(String puuid, MatchIdTimeline timeline, int count) {
+        int missing = count - timeline.size();
+        if (missing <= 0 || timeline.isComplete()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int pageSize = Math.min(MATCH_ID_PAGE_SIZE, missing);
+        return fetchMatchIdPage(puuid, null, timeline.size(), pageSize, RequestPriority.INTERACTIVE)
+                .thenCompose(page -> {
+                    List<String> ids = page != null ? page : List.of();
+                    int added = timeline.append(ids);
+                    if (ids.size() < pageSize || added == 0) {
+                        timeline.markComplete();
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return extendTimelineTail(puuid, timeline, count);
+                });
+    }
+
+    /**
+     * Fetches one page of match IDs, newest first. {@code startTime} (epoch seconds) is optional.
+     */
+    public CompletableFuture<List<String>> fetchMatchIdPage(String puuid, Long startTime, int start, int count, RequestPriority priority) {
+        String path = "/lol/match/v5/matches/by-puuid/" + puuid + "/ids?start=" + start + "&count=" + count
+                + (startTime != null ? "&startTime=" + startTime : "");
+        String url = baseUrl(this.regionalRoute) + path;
         logger.debug(">>> RiotApiClient (MatchIds): Requesting URL: [{}]", url);
-        return sendApiRequestAsync(url, MATCH_ID_LIST_TYPE, "MatchIds");
+        return sendApiRequestAsync(url, MATCH_ID_LIST_TYPE, "MatchIds", priority);
+    }
+
+    /**
+     * Match details are served from the Caffeine cache (L1), then the {@link OffHeapMatchCache} (L2), the persistent
+     * {@link MatchDetailsStore} (L3), and only fetched from Riot if all of them miss. Matches found further down are
+     * written back to the off-heap tier; fetched matches are also written through to L3.
+     */
+    @Cacheable(value = "matchDetails", key = "#matchId", sync = true)
+    public CompletableFuture<MatchSummary> getMatchDetails(String matchId) {
+        MatchSummary offHeap = offHeapMatchCache.get(matchId);
+        if (offHeap != null) {
+            logger.debug(">>> RiotApiClient (MatchDetails): Served {} from off-heap cache", matchId);
+            return CompletableFuture.completedFuture(offHeap);
+        }
+        return matchDetailsStore.find(matchId)
+                .thenCompose(stored -> {
+                    if (stored != null) {
+                        logger.debug(">>> RiotApiClient (MatchDetails): Served {} from match store", matchId);
+                        offHeapMatchCache.put(stored);
+                        return CompletableFuture.completedFuture(stored);
+                    }
+                    return fetchMatchDetails(matchId, RequestPriority.INTERACTIVE)
+                            .thenApply(match -> {
+                                matchDetailsStore.save(match);
+                                offHeapMatchCache.put(match);
+                                return match;
+                            });
+                });
     }
 
-    @Cacheable(value = "matchDetails", key = "#matchId")
-    public CompletableFuture<MatchV5Dto> getMatchDetails(String matchId) {
-        String host = this.regionalRoute + ".api.riotgames.com";
+    /**
+     * Uncached variant of {@link #getMatchDetails(String)} for callers that choose their own priority. The payload
+     * is projected to a {@link MatchSummary} as soon as it is decoded, so the full DTO graph never outlives the call.
+     */
+    public CompletableFuture<MatchSummary> fetchMatchDetails(String matchId, RequestPriority priority) {
         String path = "/lol/match/v5/matches/" + matchId;
-        String url = "https://" + host + path;
+        String url = baseUrl(this.regionalRoute) + path;
         logger.debug(">>> RiotApiClient (MatchDetails): Requesting URL: [{}]", url);
-        return sendApiRequestAsync(url, MatchV5Dto.class, "MatchDetails");
+        return sendApiRequestAsync(url, MatchV5Dto.class, "MatchDetails", priority)
+                .thenApply(MatchSummary::from);
     }
 
     public String getPlatformRegion() {
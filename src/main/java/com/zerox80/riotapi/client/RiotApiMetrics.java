@@ -0,0 +1,66 @@
+package com.zerox80.riotapi.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for outbound Riot calls. Every attempt is timed under {@code riot.api.requests}, tagged with the
+ * request type and the HTTP status (or {@code error} if no response arrived), with a percentile histogram
+ * so latency quantiles can be aggregated in Prometheus.
+ * <p>
+ * {@code riot.api.singleflight} counts calls that went out ({@code result=sent}) and calls that joined an identical
+ * request already in flight ({@code result=joined}, i.e. requests saved).
+ */
+@Component
+public class RiotApiMetrics {
+
+    static final String NO_RESPONSE = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    public RiotApiMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordAttempt(String requestType, String status, long durationNanos) {
+        Timer.builder("riot.api.requests")
+                .description("Outbound Riot API requests, one per attempt")
+                .tag("requestType", requestType)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void retry(String requestType, String reason) {
+        counter("riot.api.retries", requestType).tag("reason", reason).register(meterRegistry).increment();
+    }
+
+    public void rateLimited(String requestType) {
+        counter("riot.api.rate.limited", requestType).register(meterRegistry).increment();
+    }
+
+    public void retriesExhausted(String requestType) {
+        counter("riot.api.retries.exhausted", requestType).register(meterRegistry).increment();
+    }
+
+    public void coalesced(String requestType, boolean joined) {
+        counter("riot.api.singleflight", requestType).tag("result", joined ? "joined" : "sent").register(meterRegistry).increment();
+    }
+
+    void registerInFlight(Map<String, ?> inFlight) {
+        Gauge.builder("riot.api.inflight", inFlight, Map::size)
+                .description("Distinct Riot calls currently in flight")
+                .register(meterRegistry);
+    }
+
+    private static Counter.Builder counter(String name, String requestType) {
+        return Counter.builder(name).tag("requestType", requestType);
+    }
+}
@@ -0,0 +1,361 @@
+package com.zerox80.riotapi.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Serializable;
+import java.net.http.HttpHeaders;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Client-side admission control for the Riot API key.
+ * <p>
+ * Riot reports its limits as {@code X-App-Rate-Limit: 20:1,100:120} (requests:seconds) and the
+ * consumed budget as {@code X-App-Rate-Limit-Count: 3:1,17:120}; the same pair exists per method
+ * ({@code X-Method-Rate-Limit}). Limits apply per routing host, so windows are kept per host for
+ * the application limit and per host + request type for the method limit. Requests are admitted
+ * before they are sent, which keeps us close to the budget without tripping 429s.
+ * <p>
+ * When several nodes share the key, each node only uses its {@linkplain #setBudgetShare share} of every window and
+ * scales the counts Riot reports (which cover the whole key) down to that share. A 429 seen by one node is handed to
+ * the {@linkplain #setBlockListener block listener} so the other nodes can back off as well.
+ * <p>
+ * The requests left in the tightest window of every scope are published as the
+ * {@code riot.ratelimit.remaining} gauge (tags {@code scope}, {@code host}, {@code method}).
+ */
+@Component
+public class RiotRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotRateLimiter.class);
+
+    static final String APP_LIMIT_HEADER = "X-App-Rate-Limit";
+    static final String APP_COUNT_HEADER = "X-App-Rate-Limit-Count";
+    static final String METHOD_LIMIT_HEADER = "X-Method-Rate-Limit";
+    static final String METHOD_COUNT_HEADER = "X-Method-Rate-Limit-Count";
+    static final String LIMIT_TYPE_HEADER = "X-Rate-Limit-Type";
+
+    private final boolean enabled;
+    private final String defaultAppLimits;
+    private final Map<String, LimitScope> scopes = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private double budgetShare = 1.0;
+    private volatile Consumer<Block> blockListener = block -> { };
+
+    public RiotRateLimiter(@Value("${riot.api.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${riot.api.rate-limit.app-default:20:1,100:120}") String defaultAppLimits,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.defaultAppLimits = defaultAppLimits;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("riot.ratelimit.budget.share", this, RiotRateLimiter::budgetShare)
+                .description("Share of the API key's rate-limit budget this node may use")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Limits this node to the given fraction of every window, e.g. {@code 1/3} with three nodes on one key.
+     */
+    public synchronized void setBudgetShare(double share) {
+        double bounded = Math.min(1.0, Math.max(0.0, share));
+        if (bounded != budgetShare) {
+            logger.info("Rate-limit budget share changed from {} to {}", budgetShare, bounded);
+            budgetShare = bounded;
+        }
+    }
+
+    public synchronized double budgetShare() {
+        return budgetShare;
+    }
+
+    /**
+     * Receives every block this node derives from a 429, e.g. to pass it on to the other nodes sharing the key.
+     */
+    public void setBlockListener(Consumer<Block> blockListener) {
+        this.blockListener = blockListener;
+    }
+
+    /**
+     * Reserves one request slot if both the application and the method windows have room.
+     *
+     * @return 0 if the request was admitted, otherwise the number of milliseconds until a retry may succeed.
+     */
+    public long tryAcquire(String host, String method) {
+        return tryAcquire(host, method, 0.0);
+    }
+
+    /**
+     * Like {@link #tryAcquire(String, String)}, but leaves the given fraction of every window untouched
+     * so that lower-priority traffic cannot consume the budget reserved for interactive requests.
+     */
+    public synchronized long tryAcquire(String host, String method, double reserveFraction) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        LimitScope app = appScope(host);
+        LimitScope methodScope = methodScope(host, method);
+        long waitMillis = Math.max(app.waitMillis(now, reserveFraction, budgetShare),
+                methodScope.waitMillis(now, reserveFraction, budgetShare));
+        if (waitMillis > 0) {
+            return waitMillis;
+        }
+        app.record(now);
+        methodScope.record(now);
+        return 0;
+    }
+
+    /**
+     * Synchronises local windows with the limits and counts Riot reported for a response.
+     */
+    public void onResponse(String host, String method, int statusCode, HttpHeaders headers) {
+        if (!enabled) {
+            return;
+        }
+        Block block = syncWithResponse(host, method, statusCode, headers);
+        if (block != null) {
+            blockListener.accept(block);
+        }
+    }
+
+    private synchronized Block syncWithResponse(String host, String method, int statusCode, HttpHeaders headers) {
+        long now = System.currentTimeMillis();
+        LimitScope app = appScope(host);
+        LimitScope methodScope = methodScope(host, method);
+
+        headers.firstValue(APP_LIMIT_HEADER).ifPresent(spec -> app.updateLimits(spec));
+        headers.firstValue(APP_COUNT_HEADER).ifPresent(spec -> app.applyCounts(spec, now, budgetShare));
+        headers.firstValue(METHOD_LIMIT_HEADER).ifPresent(spec -> methodScope.updateLimits(spec));
+        headers.firstValue(METHOD_COUNT_HEADER).ifPresent(spec -> methodScope.applyCounts(spec, now, budgetShare));
+
+        if (statusCode != 429) {
+            return null;
+        }
+        long retryAfterMillis = parseRetryAfterSeconds(headers).orElse(1L) * 1000L;
+        String limitType = headers.firstValue(LIMIT_TYPE_HEADER).orElse("method");
+        boolean application = "application".equalsIgnoreCase(limitType);
+        (application ? app : methodScope).blockUntil(now + retryAfterMillis);
+        logger.warn("Riot returned 429 for {} ({}), limit type '{}'. Blocking {} scope for {} ms.",
+                host, method, limitType, application ? "application" : "method", retryAfterMillis);
+        return new Block(host, method, application, retryAfterMillis);
+    }
+
+    /**
+     * Applies a block another node derived from a 429 on the shared key.
+     */
+    public synchronized void applyBlock(Block block) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        LimitScope blocked = block.application() ? appScope(block.host()) : methodScope(block.host(), block.method());
+        blocked.blockUntil(now + block.retryAfterMillis());
+        logger.info("Another node was rate limited on {} ({}). Blocking {} scope for {} ms.", block.host(),
+                block.method(), block.application() ? "application" : "method", block.retryAfterMillis());
+    }
+
+    private LimitScope appScope(String host) {
+        return scopes.computeIfAbsent(host, k -> registerGauge(LimitScope.parse(defaultAppLimits), "application", host, ""));
+    }
+
+    private LimitScope methodScope(String host, String method) {
+        return scopes.computeIfAbsent(host + " " + method, k -> registerGauge(new LimitScope(), "method", host, method));
+    }
+
+    private LimitScope registerGauge(LimitScope scope, String scopeType, String host, String method) {
+        Gauge.builder("riot.ratelimit.remaining", scope, this::remaining)
+                .description("Requests left in the tightest rate-limit window of the scope")
+                .tag("scope", scopeType)
+                .tag("host", host)
+                .tag("method", method)
+                .register(meterRegistry);
+        return scope;
+    }
+
+    private synchronized double remaining(LimitScope scope) {
+        return scope.remaining(System.currentTimeMillis(), budgetShare);
+    }
+
+    private static Optional<Long> parseRetryAfterSeconds(HttpHeaders headers) {
+        return headers.firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Math.max(1L, Long.parseLong(value.trim())));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * A scope blocked after a 429, for {@code retryAfterMillis} from the moment it is applied.
+     */
+    public record Block(String host, String method, boolean application, long retryAfterMillis) implements Serializable {
+    }
+
+    /**
+     * One set of windows sharing a budget, e.g. the application limit of a routing host.
+     */
+    static final class LimitScope {
+
+        private List<LimitWindow> windows = new ArrayList<>();
+        private String spec = "";
+        private long blockedUntil;
+
+        static LimitScope parse(String spec) {
+            LimitScope scope = new LimitScope();
+            scope.updateLimits(spec);
+            return scope;
+        }
+
+        long waitMillis(long now, double reserveFraction, double share) {
+            long waitMillis = Math.max(0, blockedUntil - now);
+            for (LimitWindow window : windows) {
+                waitMillis = Math.max(waitMillis, window.waitMillis(now, reserveFraction, share));
+            }
+            return waitMillis;
+        }
+
+        void record(long now) {
+            for (LimitWindow window : windows) {
+                window.record(now);
+            }
+        }
+
+        /**
+         * Requests left before the tightest window is exhausted; NaN while no limits are known yet.
+         */
+        double remaining(long now, double share) {
+            if (windows.isEmpty()) {
+                return Double.NaN;
+            }
+            if (blockedUntil > now) {
+                return 0;
+            }
+            int remaining = Integer.MAX_VALUE;
+            for (LimitWindow window : windows) {
+                window.rollIfExpired(now);
+                remaining = Math.min(remaining, Math.max(0, window.budget(share) - window.count));
+            }
+            return remaining;
+        }
+
+        void blockUntil(long until) {
+            blockedUntil = Math.max(blockedUntil, until);
+        }
+
+        void updateLimits(String newSpec) {
+            if (newSpec == null || newSpec.equals(spec)) {
+                return;
+            }
+            List<LimitWindow> updated = new ArrayList<>();
+            for (int[] pair : parsePairs(newSpec)) {
+                LimitWindow window = new LimitWindow(pair[0], pair[1] * 1000L);
+                // Keep consumption already tracked for a window of the same length
+                for (LimitWindow existing : windows) {
+                    if (existing.windowMillis == window.windowMillis) {
+                        window.windowStart = existing.windowStart;
+                        window.count = existing.count;
+                    }
+                }
+                updated.add(window);
+            }
+            windows = updated;
+            spec = newSpec;
+        }
+
+        /**
+         * Riot counts for the whole key; with a partial share the reported count is scaled to this node's slice.
+         */
+        void applyCounts(String countSpec, long now, double share) {
+            for (int[] pair : parsePairs(countSpec)) {
+                long windowMillis = pair[1] * 1000L;
+                for (LimitWindow window : windows) {
+                    if (window.windowMillis == windowMillis) {
+                        window.sync((int) Math.ceil(pair[0] * share), now);
+                    }
+                }
+            }
+        }
+
+        private static List<int[]> parsePairs(String spec) {
+            List<int[]> pairs = new ArrayList<>();
+            if (spec == null || spec.isBlank()) {
+                return pairs;
+            }
+            for (String part : spec.split(",")) {
+                String[] values = part.trim().split(":");
+                if (values.length != 2) {
+                    continue;
+                }
+                try {
+                    pairs.add(new int[]{Integer.parseInt(values[0].trim()), Integer.parseInt(values[1].trim())});
+                } catch (NumberFormatException e) {
+                    logger.debug("Ignoring malformed rate limit entry '{}'", part);
+                }
+            }
+            return pairs;
+        }
+    }
+
+    /**
+     * A fixed window that starts with its first request, which is how Riot counts.
+     */
+    static final class LimitWindow {
+
+        final int limit;
+        final long windowMillis;
+        long windowStart;
+        int count;
+
+        LimitWindow(int limit, long windowMillis) {
+            this.limit = limit;
+            this.windowMillis = windowMillis;
+        }
+
+        int budget(double share) {
+            return Math.max(1, (int) Math.floor(limit * share));
+        }
+
+        long waitMillis(long now, double reserveFraction, double share) {
+            rollIfExpired(now);
+            int budget = budget(share);
+            int usable = Math.max(1, budget - (int) Math.floor(budget * reserveFraction));
+            if (count < usable) {
+                return 0;
+            }
+            return Math.max(1, windowStart + windowMillis - now);
+        }
+
+        void record(long now) {
+            rollIfExpired(now);
+            if (count == 0) {
+                windowStart = now;
+            }
+            count++;
+        }
+
+        void sync(int reportedCount, long now) {
+            rollIfExpired(now);
+            if (reportedCount > count) {
+                if (count == 0) {
+                    windowStart = now;
+                }
+                count = reportedCount;
+            }
+        }
+
+        private void rollIfExpired(long now) {
+            if (count > 0 && now >= windowStart + windowMillis) {
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.zerox80.riotapi.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Queues outbound Riot requests per {@link RequestPriority} and admits them against the shared
+ * {@link RiotRateLimiter} budget.
+ * <p>
+ * Queues are scanned highest priority first, so interactive requests are always considered before
+ * background work. Lower classes additionally leave a configurable fraction of every rate-limit window
+ * untouched, which keeps headroom for interactive bursts while background jobs soak up what is left.
+ */
+@Component
+public class RiotRequestScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiotRequestScheduler.class);
+
+    private final RiotRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<RequestPriority, Deque<PendingRequest<?>>> queues = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Integer> capacities = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Double> reserves = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Timer> waitTimers = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Counter> rejectedCounters = new EnumMap<>(RequestPriority.class);
+    private long nextDrainAt = Long.MAX_VALUE;
+
+    public RiotRequestScheduler(RiotRateLimiter rateLimiter,
+                                MeterRegistry meterRegistry,
+                                @Value("${riot.api.scheduler.capacity.interactive:500}") int interactiveCapacity,
+                                @Value("${riot.api.scheduler.capacity.prefetch:200}") int prefetchCapacity,
+                                @Value("${riot.api.scheduler.capacity.bulk:100}") int bulkCapacity,
+                                @Value("${riot.api.scheduler.reserve.prefetch:0.2}") double prefetchReserve,
+                                @Value("${riot.api.scheduler.reserve.bulk:0.4}") double bulkReserve) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        capacities.put(RequestPriority.INTERACTIVE, interactiveCapacity);
+        capacities.put(RequestPriority.PREFETCH, prefetchCapacity);
+        capacities.put(RequestPriority.BULK, bulkCapacity);
+        reserves.put(RequestPriority.INTERACTIVE, 0.0);
+        reserves.put(RequestPriority.PREFETCH, prefetchReserve);
+        reserves.put(RequestPriority.BULK, bulkReserve);
+
+        for (RequestPriority priority : RequestPriority.values()) {
+            Deque<PendingRequest<?>> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            String tag = priority.name().toLowerCase();
+            waitTimers.put(priority, Timer.builder("riot.scheduler.wait")
+                    .description("Time outbound Riot requests spend queued before admission")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            rejectedCounters.put(priority, Counter.builder("riot.scheduler.rejected")
+                    .description("Outbound Riot requests rejected because their queue was full")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @PostConstruct
+    public void registerQueueGauges() {
+        for (RequestPriority priority : RequestPriority.values()) {
+            Gauge.builder("riot.scheduler.queue.depth", this, scheduler -> scheduler.queueDepth(priority))
+                    .description("Outbound Riot requests waiting for admission")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Queues a call against the given routing host and request type. The supplier is invoked once the
+     * request has been admitted; the returned future completes with the supplier's result.
+     */
+    public <T> CompletableFuture<T> submit(RequestPriority priority, String host, String method, Supplier<CompletableFuture<T>> call) {
+        PendingRequest<T> pending = new PendingRequest<>(priority, host, method, call);
+        synchronized (this) {
+            Deque<PendingRequest<?>> queue = queues.get(priority);
+            if (queue.size() >= capacities.get(priority)) {
+                rejectedCounters.get(priority).increment();
+                logger.warn("Outbound request queue for priority {} is full ({} entries). Rejecting {} request to {}.",
+                        priority, queue.size(), method, host);
+                return CompletableFuture.failedFuture(new RiotApiRequestException(
+                        "Request queue for priority " + priority + " is full"));
+            }
+            queue.addLast(pending);
+        }
+        drain();
+        return pending.result;
+    }
+
+    /**
+     * Number of requests currently waiting in the given priority class.
+     */
+    public synchronized int queueDepth(RequestPriority priority) {
+        return queues.get(priority).size();
+    }
+
+    private void drain() {
+        List<PendingRequest<?>> admitted = new ArrayList<>();
+        long minWaitMillis = Long.MAX_VALUE;
+        // Reserve at which a (host, method) scope had to wait in this pass. The budget only shrinks while the
+        // pass runs, so a scope is not asked again at that reserve or a larger one, and a deep queue for one
+        // exhausted method costs one limiter call instead of one per entry.
+        Map<String, Double> blockedAtReserve = new HashMap<>();
+        synchronized (this) {
+            for (RequestPriority priority : RequestPriority.values()) {
+                double reserve = reserves.get(priority);
+                Iterator<PendingRequest<?>> it = queues.get(priority).iterator();
+                while (it.hasNext()) {
+                    PendingRequest<?> pending = it.next();
+                    String scope = pending.host + " " + pending.method;
+                    Double blockedReserve = blockedAtReserve.get(scope);
+                    if (blockedReserve != null && blockedReserve <= reserve) {
+                        continue;
+                    }
+                    long waitMillis = rateLimiter.tryAcquire(pending.host, pending.method, reserve);
+                    if (waitMillis == 0) {
+                        it.remove();
+                        admitted.add(pending);
+                    } else {
+                        minWaitMillis = Math.min(minWaitMillis, waitMillis);
+                        blockedAtReserve.merge(scope, reserve, Math::min);
+                    }
+                }
+            }
+            if (minWaitMillis != Long.MAX_VALUE) {
+                scheduleDrain(minWaitMillis);
+            }
+        }
+        for (PendingRequest<?> pending : admitted) {
+            waitTimers.get(pending.priority).record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+            pending.start();
+        }
+    }
+
+    private void scheduleDrain(long delayMillis) {
+        long drainAt = System.currentTimeMillis() + delayMillis;
+        if (drainAt >= nextDrainAt && nextDrainAt > System.currentTimeMillis()) {
+            return;
+        }
+        nextDrainAt = drainAt;
+        CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            synchronized (this) {
+                if (nextDrainAt == drainAt) {
+                    nextDrainAt = Long.MAX_VALUE;
+                }
+            }
+            drain();
+        });
+    }
+
+    private static final class PendingRequest<T> {
+
+        private final RequestPriority priority;
+        private final String host;
+        private final String method;
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private PendingRequest(RequestPriority priority, String host, String method, Supplier<CompletableFuture<T>> call) {
+            this.priority = priority;
+            this.host = host;
+            this.method = method;
+            this.call = call;
+        }
+
+        private void start() {
+            try {
+                call.get().whenComplete((value, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -1,53 +1,264 @@
 package com.zerox80.riotapi.config;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.zerox80.riotapi.client.MatchIdTimeline;
+import com.zerox80.riotapi.client.RequestPriority;
+import com.zerox80.riotapi.client.RiotApiClient;
+import com.zerox80.riotapi.model.MatchStringDictionary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+/**
+ * Caches are bounded by estimated heap bytes (see {@link CachePayloadWeigher}) instead of entry counts.
+ * The total budget comes from {@code riot.cache.memory-budget-mb} and is split across caches by
+ * {@link #BUDGET_SHARES}; the estimated bytes held by each cache are published as the
+ * {@code riot.cache.estimated.bytes} gauge next to its {@code riot.cache.budget.bytes}.
+ * <p>
+ * Every cache records Caffeine statistics. Spring Boot binds the caches of the cache manager as
+ * {@code cache.*} meters; {@code matchIdTimelines} lives outside it and is bound here.
+ * <p>
+ * Expiry and refresh read the system clock unless the context provides a Caffeine {@link Ticker} bean, which
+ * tests use to move time forward.
+ */
 @Configuration
 public class CacheConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    static final Map<String, Double> BUDGET_SHARES = budgetShares();
+
+    private final long memoryBudgetBytes;
+    private final MeterRegistry meterRegistry;
+    private final Ticker ticker;
+
+    public CacheConfig(@Value("${riot.cache.memory-budget-mb:128}") long memoryBudgetMb, MeterRegistry meterRegistry,
+                       ObjectProvider<Ticker> ticker) {
+        this.memoryBudgetBytes = memoryBudgetMb * 1024 * 1024;
+        this.meterRegistry = meterRegistry;
+        this.ticker = ticker.getIfAvailable(Ticker::systemTicker);
+        logger.info("Cache memory budget: {} MB split as {}", memoryBudgetMb, BUDGET_SHARES);
+        registerDictionaryGauges();
+    }
+
+    private static Map<String, Double> budgetShares() {
+        Map<String, Double> shares = new LinkedHashMap<>();
+        shares.put("accounts", 0.02);
+        shares.put("summoners", 0.03);
+        shares.put("leagueEntries", 0.05);
+        shares.put("matchIdTimelines", 0.05);
+        shares.put("matchDetails", 0.85);
+        return Collections.unmodifiableMap(shares);
+    }
+
+    /**
+     * Accounts, summoners and league entries are refreshed ahead of expiry: a read past the
+     * {@code refreshAfterWrite} soft TTL returns the cached value immediately and triggers a single
+     * background reload through {@link RiotApiClient} at prefetch priority. {@code expireAfterWrite}
+     * remains as the hard backstop for entries nobody reads. Account and summoner reloads go through the
+     * same negative-lookup check as the cached methods, so a player that disappeared is not re-requested
+     * on every stale read and the entry is dropped.
+     */
     @Primary
     @Bean("caffeineCacheManager")
-    public CaffeineCacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    public CaffeineCacheManager cacheManager(ObjectProvider<RiotApiClient> riotApiClient,
+                                             ObjectProvider<SharedCacheTier> sharedCacheTier) {
+        SharedCacheTier sharedTier = sharedCacheTier.getIfAvailable();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, AsyncCache<Object, Object> cache) {
+                return new NonLoadingLookupCache(name, cache, isAllowNullValues(),
+                        sharedTier != null && sharedTier.handles(name) ? sharedTier : null);
+            }
+        };
         cacheManager.setAsyncCacheMode(true);
+        // A null result (404) must not be cached as a NullValue for the lifetime of the entry; NegativeLookupCache
+        // remembers misses for its own, much shorter TTL. Set before the caches below are adapted.
+        cacheManager.setAllowNullValues(false);
 
-        cacheManager.registerCustomCache("accounts",
-            Caffeine.newBuilder()
-                .expireAfterWrite(60, TimeUnit.MINUTES)
-                .maximumSize(100)
-                .buildAsync());
-        cacheManager.registerCustomCache("summoners",
-            Caffeine.newBuilder()
-                .expireAfterWrite(60, TimeUnit.MINUTES)
-                .maximumSize(100)
-                .buildAsync());
-        cacheManager.registerCustomCache("leagueEntries",
-            Caffeine.newBuilder()
-                .expireAfterWrite(5, TimeUnit.MINUTES)
-                .maximumSize(200)
-                .buildAsync());
-        cacheManager.registerCustomCache("matchIds",
-            Caffeine.newBuilder()
-                .expireAfterAccess(10, TimeUnit.MINUTES)
-                .maximumSize(500)
-                .buildAsync());
-        cacheManager.registerCustomCache("matchDetails",
-            Caffeine.newBuilder()
+        cacheManager.registerCustomCache("accounts", report("accounts",
+            budgeted("accounts")
+                .refreshAfterWrite(60, TimeUnit.MINUTES)
+                .expireAfterWrite(24, TimeUnit.HOURS)
+                .buildAsync(accountLoader(riotApiClient))));
+        cacheManager.registerCustomCache("summoners", report("summoners",
+            budgeted("summoners")
+                .refreshAfterWrite(60, TimeUnit.MINUTES)
+                .expireAfterWrite(24, TimeUnit.HOURS)
+                .buildAsync(summonerLoader(riotApiClient))));
+        cacheManager.registerCustomCache("leagueEntries", report("leagueEntries",
+            budgeted("leagueEntries")
+                .refreshAfterWrite(2, TimeUnit.MINUTES)
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .buildAsync(leagueEntriesLoader(riotApiClient))));
+        cacheManager.registerCustomCache("matchDetails", report("matchDetails",
+            budgeted("matchDetails")
                 .expireAfterWrite(30, TimeUnit.MINUTES)
-                .maximumSize(1000)
-                .buildAsync());
-        cacheManager.registerCustomCache("matchHistory",
-            Caffeine.newBuilder()
-                .expireAfterAccess(10, TimeUnit.MINUTES)
-                .maximumSize(500)
-                .buildAsync());
+                .buildAsync()));
         return cacheManager;
     }
-} 
\ No newline at end of file
+
+    private Caffeine<Object, Object> budgeted(String cacheName) {
+        return Caffeine.newBuilder()
+                .ticker(ticker)
+                .maximumWeight(budgetBytes(cacheName))
+                .weigher(CachePayloadWeigher.INSTANCE)
+                .recordStats();
+    }
+
+    long budgetBytes(String cacheName) {
+        return (long) (memoryBudgetBytes * BUDGET_SHARES.get(cacheName));
+    }
+
+    private <C extends AsyncCache<Object, Object>> C report(String cacheName, C cache) {
+        registerGauges(cacheName, cache.synchronous());
+        return cache;
+    }
+
+    private void registerGauges(String cacheName, Cache<?, ?> cache) {
+        Gauge.builder("riot.cache.estimated.bytes", cache, c -> c.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .description("Estimated heap bytes held by the cache")
+                .tag("cache", cacheName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("riot.cache.budget.bytes", () -> budgetBytes(cacheName))
+                .description("Heap byte budget assigned to the cache")
+                .tag("cache", cacheName)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cached matches keep their repeated strings in {@link MatchStringDictionary}; the gauges show its size and the
+     * bytes it saves compared to per-match string copies.
+     */
+    private void registerDictionaryGauges() {
+        Gauge.builder("riot.match.dictionary.entries", () -> MatchStringDictionary.stats().entries())
+                .description("Distinct strings held by the live match string dictionary generations")
+                .register(meterRegistry);
+        Gauge.builder("riot.match.dictionary.bytes", () -> MatchStringDictionary.stats().storedBytes())
+                .description("Estimated heap bytes held by the match string dictionary")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("riot.match.dictionary.saved.bytes", () -> MatchStringDictionary.stats().savedBytes())
+                .description("Estimated heap bytes saved by dictionary-encoding match strings")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // Keys mirror the @Cacheable key expressions in RiotApiClient
+
+    private static AsyncCacheLoader<Object, Object> accountLoader(ObjectProvider<RiotApiClient> riotApiClient) {
+        return (key, executor) -> {
+            String riotId = (String) key;
+            int separator = riotId.lastIndexOf('#');
+            return riotApiClient.getObject().lookupAccountByRiotId(
+                    riotId.substring(0, separator), riotId.substring(separator + 1), RequestPriority.PREFETCH);
+        };
+    }
+
+    private static AsyncCacheLoader<Object, Object> summonerLoader(ObjectProvider<RiotApiClient> riotApiClient) {
+        return (key, executor) -> riotApiClient.getObject().lookupSummonerByPuuid((String) key, RequestPriority.PREFETCH);
+    }
+
+    private static AsyncCacheLoader<Object, Object> leagueEntriesLoader(ObjectProvider<RiotApiClient> riotApiClient) {
+        return (key, executor) -> {
+            String cacheKey = (String) key;
+            if (cacheKey.startsWith(RiotApiClient.SUMMONER_ID_KEY_PREFIX)) {
+                return riotApiClient.getObject().fetchLeagueEntriesBySummonerId(
+                        cacheKey.substring(RiotApiClient.SUMMONER_ID_KEY_PREFIX.length()), RequestPriority.PREFETCH);
+            }
+            return riotApiClient.getObject().fetchLeagueEntriesByPuuid(cacheKey, RequestPriority.PREFETCH);
+        };
+    }
+
+    /**
+     * Per-player match ID timelines. They are extended incrementally, so entries live much longer
+     * than the other caches; the head is re-synchronised on access instead of expiring.
+     */
+    @Bean
+    public Cache<String, MatchIdTimeline> matchIdTimelineCache() {
+        Cache<String, MatchIdTimeline> cache = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(6, TimeUnit.HOURS)
+                .maximumWeight(budgetBytes("matchIdTimelines"))
+                .weigher(CachePayloadWeigher.INSTANCE)
+                .recordStats()
+                .build();
+        registerGauges("matchIdTimelines", cache);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "matchIdTimelines");
+        return cache;
+    }
+
+    /**
+     * Spring's {@link CaffeineCache#lookup} calls {@code LoadingCache.get} for loading caches, so a miss on the
+     * synchronous path would block on the refresh loader and hand the raw value to a method returning a
+     * {@code CompletableFuture}. Misses must fall through to the annotated method instead; the loader is only
+     * meant for {@code refreshAfterWrite}.
+     * <p>
+     * With the shared tier enabled, a miss of the {@code sync} lookup asks {@link SharedCacheTier} before running the
+     * annotated method. Caffeine still joins concurrent misses on this node into one shared-tier request.
+     */
+    static final class NonLoadingLookupCache extends CaffeineCache {
+
+        private final SharedCacheTier sharedTier;
+
+        NonLoadingLookupCache(String name, AsyncCache<Object, Object> cache, boolean allowNullValues,
+                              SharedCacheTier sharedTier) {
+            super(name, cache, allowNullValues);
+            this.sharedTier = sharedTier;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            return getNativeCache().getIfPresent(key);
+        }
+
+        @Override
+        public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+            if (sharedTier == null) {
+                return super.retrieve(key, valueLoader);
+            }
+            return super.retrieve(key, () -> sharedTier.retrieve(getName(), key, valueLoader));
+        }
+
+        @Override
+        public void evict(Object key) {
+            super.evict(key);
+            if (sharedTier != null) {
+                sharedTier.evict(getName(), key);
+            }
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            if (sharedTier != null) {
+                sharedTier.clear(getName());
+            }
+        }
+    }
+}
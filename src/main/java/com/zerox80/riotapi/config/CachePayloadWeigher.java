@@ -0,0 +1,94 @@
+package com.zerox80.riotapi.config;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.zerox80.riotapi.client.MatchIdTimeline;
+import com.zerox80.riotapi.model.AccountDto;
+import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.Summoner;
+
+import java.util.Collection;
+
+/**
+ * Estimates the retained heap of cached payloads in bytes, so caches can be bounded by memory rather than
+ * by entry count. The figures assume a 64-bit JVM with compressed oops and compact (Latin-1) strings; they
+ * are meant to be proportional to the real footprint, not exact.
+ */
+public final class CachePayloadWeigher implements Weigher<Object, Object> {
+
+    public static final CachePayloadWeigher INSTANCE = new CachePayloadWeigher();
+
+    private static final int OBJECT_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int LIST_OVERHEAD = 40;
+    private static final int ARRAY_OVERHEAD = 16;
+    private static final int CACHE_ENTRY_OVERHEAD = 64;
+    private static final int UNKNOWN_PAYLOAD = 256;
+
+    private CachePayloadWeigher() {
+    }
+
+    @Override
+    public int weigh(Object key, Object value) {
+        long bytes = CACHE_ENTRY_OVERHEAD + estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return string(string);
+        }
+        if (value instanceof MatchSummary match) {
+            return match(match);
+        }
+        if (value instanceof LeagueEntryDTO entry) {
+            return leagueEntry(entry);
+        }
+        if (value instanceof AccountDto account) {
+            return OBJECT_HEADER + 3 * REFERENCE
+                    + string(account.getPuuid()) + string(account.getGameName()) + string(account.getTagLine());
+        }
+        if (value instanceof Summoner summoner) {
+            return OBJECT_HEADER + 4 * REFERENCE + 4 + 2 * 8
+                    + string(summoner.getId()) + string(summoner.getAccountId())
+                    + string(summoner.getPuuid()) + string(summoner.getName());
+        }
+        if (value instanceof MatchIdTimeline timeline) {
+            // ArrayList slot, HashSet node and the ~16 character match ID string per entry
+            return OBJECT_HEADER + 2 * LIST_OVERHEAD + (long) timeline.size() * (REFERENCE + 48 + string("EUW1_0000000000"));
+        }
+        if (value instanceof Collection<?> collection) {
+            long bytes = LIST_OVERHEAD + (long) collection.size() * REFERENCE;
+            for (Object element : collection) {
+                bytes += estimate(element);
+            }
+            return bytes;
+        }
+        return UNKNOWN_PAYLOAD;
+    }
+
+    private static long match(MatchSummary match) {
+        int participants = match.participantCount();
+        // Fields, the string id array (game mode plus five per participant) and the stats array (five shorts each);
+        // the strings themselves live in the dictionary and are charged to the match that added them
+        return OBJECT_HEADER + 8 + 4 * 4 + 5 * REFERENCE + string(match.getMatchId())
+                + ARRAY_OVERHEAD + (1 + participants * 5L) * 4
+                + ARRAY_OVERHEAD + participants * 5L * 2
+                + match.dictionaryBytes()
+                + (match.getLpChange() != null ? 16 : 0);
+    }
+
+    private static long leagueEntry(LeagueEntryDTO entry) {
+        return OBJECT_HEADER + 6 * REFERENCE + 3 * 4 + 2 * 20 + 4
+                + string(entry.getLeagueId()) + string(entry.getSummonerId()) + string(entry.getSummonerName())
+                + string(entry.getQueueType()) + string(entry.getTier()) + string(entry.getRank());
+    }
+
+    private static long string(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + value.length();
+    }
+}
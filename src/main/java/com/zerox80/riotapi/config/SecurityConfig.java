@@ -1,16 +1,35 @@
 package com.zerox80.riotapi.config;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // Port des separaten Management-Servers (management.server.port), sobald dieser läuft
+    private final AtomicInteger managementPort = new AtomicInteger(-1);
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort.set(event.getWebServer().getPort());
+        }
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -40,12 +59,21 @@ public class SecurityConfig {
                     ))
                 )
             )
-            // Alle Endpunkte öffentlich
+            // Health bleibt für Load Balancer und Probes offen; die übrigen Actuator-Endpunkte (Prometheus, Info)
+            // nur über den internen Management-Port, alle anderen Endpunkte öffentlich
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).access(onManagementPort())
                 .anyRequest().permitAll()
             );
 
         return http.build();
     }
+
+    // Läuft Actuator auf dem Anwendungsport (kein separater Management-Port), wird damit alles außer Health abgelehnt
+    private AuthorizationManager<RequestAuthorizationContext> onManagementPort() {
+        return (authentication, context) ->
+                new AuthorizationDecision(context.getRequest().getLocalPort() == managementPort.get());
+    }
 }
 
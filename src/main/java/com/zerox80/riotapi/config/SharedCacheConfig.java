@@ -0,0 +1,114 @@
+package com.zerox80.riotapi.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.EvictionConfig;
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.JoinConfig;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MaxSizePolicy;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.zerox80.riotapi.client.RiotRateLimiter;
+import com.zerox80.riotapi.model.AccountDto;
+import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.Summoner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional cluster-shared tier below the per-node caches (see {@link SharedCacheTier}), enabled with
+ * {@code riot.cache.shared.enabled}. Every app node runs an embedded Hazelcast member; members find each other
+ * through the static {@code riot.cache.shared.members} list, multicast and cloud discovery stay off. The same
+ * cluster splits the rate-limit budget of the API key between the nodes ({@link SharedRateLimitBudget}) unless
+ * {@code riot.api.rate-limit.cluster-budget} is false, e.g. when every node has its own key.
+ * <p>
+ * The shared maps use the cache names of {@link CacheConfig}. Accounts, summoners and league entries expire after
+ * the refresh interval of their near cache, so a node never reads back a value older than the one it would have
+ * refreshed; finished matches do not change and are kept longer. Each map is bounded per
+ * member by its {@link CacheConfig#BUDGET_SHARES share} of {@code riot.cache.shared.max-heap-mb}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "riot.cache.shared.enabled", havingValue = "true")
+public class SharedCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedCacheConfig.class);
+
+    static final Map<String, Integer> TTL_SECONDS = ttlSeconds();
+
+    private static Map<String, Integer> ttlSeconds() {
+        Map<String, Integer> ttl = new LinkedHashMap<>();
+        ttl.put("accounts", 3600);
+        ttl.put("summoners", 3600);
+        ttl.put("leagueEntries", 120);
+        ttl.put("matchDetails", 6 * 3600);
+        return Collections.unmodifiableMap(ttl);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public HazelcastInstance sharedCacheHazelcast(@Value("${riot.cache.shared.cluster-name:summoner-api}") String clusterName,
+                                                  @Value("${riot.cache.shared.port:5701}") int port,
+                                                  @Value("${riot.cache.shared.members:}") List<String> members,
+                                                  @Value("${riot.cache.shared.max-heap-mb:256}") int maxHeapMb) {
+        logger.info("Starting shared cache member on port {} (cluster '{}', members {})", port, clusterName, members);
+        return Hazelcast.newHazelcastInstance(hazelcastConfig(clusterName, port, members, maxHeapMb));
+    }
+
+    @Bean
+    public SharedCacheTier sharedCacheTier(HazelcastInstance sharedCacheHazelcast,
+                                           ObjectMapper objectMapper,
+                                           @Value("${riot.cache.shared.lock-timeout-ms:5000}") long lockTimeoutMillis,
+                                           MeterRegistry meterRegistry) {
+        return new SharedCacheTier(sharedCacheHazelcast, objectMapper, valueTypes(objectMapper.getTypeFactory()),
+                lockTimeoutMillis, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "riot.api.rate-limit.cluster-budget", havingValue = "true", matchIfMissing = true)
+    public SharedRateLimitBudget sharedRateLimitBudget(HazelcastInstance sharedCacheHazelcast, RiotRateLimiter rateLimiter) {
+        return new SharedRateLimitBudget(sharedCacheHazelcast, rateLimiter);
+    }
+
+    static Config hazelcastConfig(String clusterName, int port, List<String> members, int maxHeapMb) {
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setProperty("hazelcast.phone.home.enabled", "false");
+        config.setProperty("hazelcast.logging.type", "slf4j");
+        config.getNetworkConfig().setPort(port).setPortAutoIncrement(true);
+
+        JoinConfig join = config.getNetworkConfig().getJoin();
+        join.getMulticastConfig().setEnabled(false);
+        join.getAutoDetectionConfig().setEnabled(false);
+        join.getTcpIpConfig().setEnabled(true).setMembers(members.stream().filter(m -> !m.isBlank()).toList());
+
+        TTL_SECONDS.forEach((cacheName, ttl) -> config.addMapConfig(new MapConfig(cacheName)
+                .setTimeToLiveSeconds(ttl)
+                .setEvictionConfig(new EvictionConfig()
+                        .setEvictionPolicy(EvictionPolicy.LRU)
+                        .setMaxSizePolicy(MaxSizePolicy.USED_HEAP_SIZE)
+                        .setSize(Math.max(1, (int) (maxHeapMb * CacheConfig.BUDGET_SHARES.get(cacheName)))))));
+        return config;
+    }
+
+    // Value types of the @Cacheable methods behind each cache name
+    static Map<String, JavaType> valueTypes(TypeFactory types) {
+        return Map.of(
+                "accounts", types.constructType(AccountDto.class),
+                "summoners", types.constructType(Summoner.class),
+                "leagueEntries", types.constructCollectionType(List.class, LeagueEntryDTO.class),
+                "matchDetails", types.constructType(MatchSummary.class));
+    }
+}
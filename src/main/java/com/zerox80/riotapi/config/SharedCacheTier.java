@@ -0,0 +1,147 @@
+package com.zerox80.riotapi.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide cache tier behind the per-node Caffeine caches, backed by one Hazelcast {@link IMap} per cache name.
+ * <p>
+ * The Caffeine caches stay in front as near caches: a hit there never leaves the node. A near-cache miss reads the
+ * shared map, and a miss there takes the cluster-wide lock for the key before loading, so when several nodes miss
+ * on the same hot player at once only one of them calls Riot and the others read its result. Values are stored as
+ * JSON, which keeps the map independent of Java serialization and of the node-local {@code MatchStringDictionary}.
+ * <p>
+ * Shared entries expire after the per-map TTL set in {@link SharedCacheConfig}; there is no refresh-ahead at this
+ * level, so {@code refreshAfterWrite} reloads of the near caches still go to Riot from each node.
+ */
+public class SharedCacheTier {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedCacheTier.class);
+
+    private final HazelcastInstance hazelcast;
+    private final ObjectMapper objectMapper;
+    private final Map<String, JavaType> valueTypes;
+    private final long lockTimeoutMillis;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SharedCacheTier(HazelcastInstance hazelcast, ObjectMapper objectMapper, Map<String, JavaType> valueTypes,
+                           long lockTimeoutMillis, MeterRegistry meterRegistry) {
+        this.hazelcast = hazelcast;
+        this.objectMapper = objectMapper.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.valueTypes = valueTypes;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean handles(String cacheName) {
+        return valueTypes.containsKey(cacheName);
+    }
+
+    /**
+     * Returns the shared value for the key or loads it with cluster-wide single flight. The blocking Hazelcast calls
+     * run on a virtual thread; the lock is held by that thread while the loader runs.
+     */
+    public <T> CompletableFuture<T> retrieve(String cacheName, Object key, Supplier<CompletableFuture<T>> loader) {
+        return CompletableFuture.supplyAsync(() -> load(cacheName, key.toString(), loader), executor);
+    }
+
+    private <T> T load(String cacheName, String key, Supplier<CompletableFuture<T>> loader) {
+        IMap<String, byte[]> map = map(cacheName);
+        T shared = read(cacheName, map, key);
+        if (shared != null) {
+            count(cacheName, "hit");
+            return shared;
+        }
+        boolean locked = tryLock(map, key);
+        try {
+            if (locked) {
+                // Another node may have loaded the value while we waited for the lock
+                shared = read(cacheName, map, key);
+                if (shared != null) {
+                    count(cacheName, "waited");
+                    return shared;
+                }
+            }
+            count(cacheName, "miss");
+            T value = loader.get().join();
+            if (value != null) {
+                write(cacheName, map, key, value);
+            }
+            return value;
+        } finally {
+            if (locked) {
+                map.unlock(key);
+            }
+        }
+    }
+
+    public void evict(String cacheName, Object key) {
+        map(cacheName).delete(key.toString());
+    }
+
+    public void clear(String cacheName) {
+        map(cacheName).clear();
+    }
+
+    private IMap<String, byte[]> map(String cacheName) {
+        return hazelcast.getMap(cacheName);
+    }
+
+    private boolean tryLock(IMap<String, byte[]> map, String key) {
+        try {
+            if (map.tryLock(key, lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            logger.warn("Shared cache lock for {} not acquired within {} ms, loading without single flight", key, lockTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private <T> T read(String cacheName, IMap<String, byte[]> map, String key) {
+        byte[] bytes = map.get(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(bytes, valueTypes.get(cacheName));
+        } catch (IOException e) {
+            logger.warn("Shared cache entry {} in {} could not be decoded: {}", key, cacheName, e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(String cacheName, IMap<String, byte[]> map, String key, Object value) {
+        try {
+            map.set(key, objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            logger.warn("Value for {} in {} could not be written to the shared cache: {}", key, cacheName, e.getMessage());
+        }
+    }
+
+    private void count(String cacheName, String result) {
+        Counter.builder("riot.cache.shared.requests")
+                .description("Shared cache tier lookups after a near-cache miss")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
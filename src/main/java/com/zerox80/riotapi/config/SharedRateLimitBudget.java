@@ -0,0 +1,86 @@
+package com.zerox80.riotapi.config;
+
+import com.hazelcast.cluster.MembershipEvent;
+import com.hazelcast.cluster.MembershipListener;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.zerox80.riotapi.client.RiotRateLimiter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+/**
+ * Splits the rate-limit budget of the shared Riot API key between the members of the shared cache cluster.
+ * <p>
+ * Every node gets an equal slice of every window ({@link RiotRateLimiter#setBudgetShare}), recomputed whenever a
+ * member joins or leaves, so admission stays local and needs no cluster round trip per request. Blocks derived from a
+ * 429 are published on a topic and applied by every other member, which stops the remaining nodes from running into
+ * the same limit one after another.
+ */
+public class SharedRateLimitBudget implements MembershipListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedRateLimitBudget.class);
+
+    static final String BLOCKS_TOPIC = "riot-rate-limit-blocks";
+
+    private final HazelcastInstance hazelcast;
+    private final RiotRateLimiter rateLimiter;
+    private UUID membershipRegistration;
+    private UUID topicRegistration;
+    private boolean closed;
+
+    public SharedRateLimitBudget(HazelcastInstance hazelcast, RiotRateLimiter rateLimiter) {
+        this.hazelcast = hazelcast;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @PostConstruct
+    public void start() {
+        ITopic<RiotRateLimiter.Block> blocks = hazelcast.getTopic(BLOCKS_TOPIC);
+        topicRegistration = blocks.addMessageListener(message -> {
+            if (!message.getPublishingMember().localMember()) {
+                rateLimiter.applyBlock(message.getMessageObject());
+            }
+        });
+        rateLimiter.setBlockListener(blocks::publishAsync);
+
+        membershipRegistration = hazelcast.getCluster().addMembershipListener(this);
+        rebalance();
+    }
+
+    @Override
+    public void memberAdded(MembershipEvent event) {
+        rebalance();
+    }
+
+    @Override
+    public void memberRemoved(MembershipEvent event) {
+        rebalance();
+    }
+
+    // Reads the member list under the lock, so whichever call runs last applies the newest view even when
+    // start() races with the first membership events
+    private synchronized void rebalance() {
+        if (closed) {
+            return;
+        }
+        int members = Math.max(1, hazelcast.getCluster().getMembers().size());
+        logger.info("{} node(s) share the Riot API key, using 1/{} of every rate-limit window", members, members);
+        rateLimiter.setBudgetShare(1.0 / members);
+    }
+
+    /**
+     * Hands the full budget back to this node; called before the Hazelcast member shuts down.
+     */
+    public synchronized void close() {
+        closed = true;
+        rateLimiter.setBlockListener(block -> { });
+        if (hazelcast.getLifecycleService().isRunning()) {
+            hazelcast.getCluster().removeMembershipListener(membershipRegistration);
+            hazelcast.getTopic(BLOCKS_TOPIC).removeMessageListener(topicRegistration);
+        }
+        rateLimiter.setBudgetShare(1.0);
+    }
+}
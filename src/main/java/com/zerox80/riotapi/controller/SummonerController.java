@@ -2,13 +2,18 @@ package com.zerox80.riotapi.controller;
 
 import com.zerox80.riotapi.model.Summoner;
 import com.zerox80.riotapi.model.LeagueEntryDTO;
-import com.zerox80.riotapi.model.MatchV5Dto;
+import com.zerox80.riotapi.model.MatchSummary;
 import com.zerox80.riotapi.model.SummonerSuggestionDTO;
+import com.zerox80.riotapi.service.LpHistoryService;
 import com.zerox80.riotapi.service.RiotApiService;
+import com.zerox80.riotapi.service.SummonerProfileListener;
 import com.zerox80.riotapi.model.SummonerProfileData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,14 +24,19 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.bind.annotation.RequestHeader;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -45,13 +55,31 @@ public class SummonerController {
 
     private static final Logger logger = LoggerFactory.getLogger(SummonerController.class);
     private final RiotApiService riotApiService;
+    private final LpHistoryService lpHistoryService;
+    private final AsyncTaskExecutor blockingExecutor;
+    private final boolean nonBlocking;
+    private final Duration profileTimeout;
     private final ObjectMapper objectMapper = new ObjectMapper();
     private static final String SEARCH_HISTORY_COOKIE = "searchHistory";
     private static final int MAX_HISTORY_SIZE = 10;
+    private static final long SSE_TIMEOUT_MS = 60_000L;
 
+    /**
+     * @param asyncMode {@code callable} joins the Riot fan-out on an MVC async worker (one blocked worker per
+     *                  request), {@code future} hands the {@link CompletableFuture} to Spring MVC directly and
+     *                  answers with whatever arrived once {@code riot.web.profile-timeout-ms} has passed.
+     */
     @Autowired
-    public SummonerController(RiotApiService riotApiService) {
+    public SummonerController(RiotApiService riotApiService,
+                              LpHistoryService lpHistoryService,
+                              @Qualifier("applicationTaskExecutor") AsyncTaskExecutor blockingExecutor,
+                              @Value("${riot.web.async-mode:callable}") String asyncMode,
+                              @Value("${riot.web.profile-timeout-ms:8000}") long profileTimeoutMillis) {
         this.riotApiService = riotApiService;
+        this.lpHistoryService = lpHistoryService;
+        this.blockingExecutor = blockingExecutor;
+        this.nonBlocking = "future".equalsIgnoreCase(asyncMode);
+        this.profileTimeout = Duration.ofMillis(profileTimeoutMillis);
     }
 
     @GetMapping("/")
@@ -77,39 +105,104 @@ public class SummonerController {
 
     @GetMapping("/api/me")
     @ResponseBody
-    public Callable<ResponseEntity<?>> getMySummoner(@RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
+    public CompletableFuture<ResponseEntity<?>> getMySummoner(@RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
         if (!StringUtils.hasText(authorizationHeader) || !authorizationHeader.startsWith("Bearer ")) {
-            return () -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Missing or invalid Authorization header. Expected 'Bearer <token>'."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Missing or invalid Authorization header. Expected 'Bearer <token>'.")));
         }
 
         String bearerToken = authorizationHeader.substring("Bearer ".length()).trim();
         if (!StringUtils.hasText(bearerToken)) {
-            return () -> ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Empty bearer token."));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Empty bearer token.")));
         }
 
-        return () -> {
+        if (nonBlocking) {
+            return riotApiService.getSummonerViaRso(bearerToken)
+                    .orTimeout(profileTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .handle(this::toMySummonerResponse);
+        }
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                Summoner summoner = riotApiService.getSummonerViaRso(bearerToken).join();
-                if (summoner == null) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                            .body(Map.of("error", "Summoner not found or token invalid."));
-                }
-                return ResponseEntity.ok(summoner);
+                return toMySummonerResponse(riotApiService.getSummonerViaRso(bearerToken).join(), null);
             } catch (Exception e) {
-                logger.error("Error in /api/me endpoint: {}", e.getMessage(), e);
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                        .body(Map.of("error", "Internal error while resolving summoner via RSO."));
+                return toMySummonerResponse(null, e);
+            }
+        }, blockingExecutor);
+    }
+
+    private ResponseEntity<?> toMySummonerResponse(Summoner summoner, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof TimeoutException) {
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                        .body(Map.of("error", "Timed out while resolving summoner via RSO."));
             }
-        };
+            logger.error("Error in /api/me endpoint: {}", cause.getMessage(), cause);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal error while resolving summoner via RSO."));
+        }
+        if (summoner == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Summoner not found or token invalid."));
+        }
+        return ResponseEntity.ok(summoner);
+    }
+
+    /**
+     * LP curve of a player for a time range ({@code from}/{@code to} in epoch millis, default: everything up to now),
+     * downsampled server-side to at most {@code points} points.
+     */
+    @GetMapping("/api/lp-history")
+    @ResponseBody
+    public ResponseEntity<?> lpHistory(@RequestParam("puuid") String puuid,
+                                       @RequestParam(value = "queueType", defaultValue = "RANKED_SOLO_5x5") String queueType,
+                                       @RequestParam(value = "from", required = false) Long from,
+                                       @RequestParam(value = "to", required = false) Long to,
+                                       @RequestParam(value = "points", defaultValue = "200") int points) {
+        if (!StringUtils.hasText(puuid)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "puuid is required."));
+        }
+        Instant toInstant = to != null ? Instant.ofEpochMilli(to) : Instant.now();
+        Instant fromInstant = from != null ? Instant.ofEpochMilli(from) : Instant.EPOCH;
+        if (fromInstant.isAfter(toInstant)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from must not be after to."));
+        }
+        return ResponseEntity.ok(lpHistoryService.getLpHistory(puuid, queueType, fromInstant, toInstant, points));
+    }
+
+    /**
+     * Progressive variant of {@code /search}: pushes the summoner, ranked entries, every match and finally the
+     * champion aggregate as Server-Sent Events as soon as each piece is available.
+     */
+    @GetMapping(value = "/api/summoner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamSummoner(@RequestParam("riotId") String riotId) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        SseProfileListener listener = new SseProfileListener(emitter);
+
+        if (!StringUtils.hasText(riotId) || !riotId.contains("#")) {
+            listener.onError("Invalid Riot ID. Please use the format Name#TAG.");
+            emitter.complete();
+            return emitter;
+        }
+        String[] parts = riotId.split("#", 2);
+        if (!StringUtils.hasText(parts[0]) || !StringUtils.hasText(parts[1])) {
+            listener.onError("Invalid Riot ID. Name and Tagline cannot be empty.");
+            emitter.complete();
+            return emitter;
+        }
+
+        riotApiService.streamSummonerProfile(parts[0], parts[1], listener)
+                .whenComplete((v, ex) -> emitter.complete());
+        return emitter;
     }
 
     @RequestMapping(value = "/search", method = {RequestMethod.GET, RequestMethod.POST})
-    public Callable<String> searchSummoner(@RequestParam("riotId") String riotId, Model model, HttpServletRequest request, HttpServletResponse response) {
+    public CompletableFuture<String> searchSummoner(@RequestParam("riotId") String riotId, Model model, HttpServletRequest request, HttpServletResponse response) {
         if (!StringUtils.hasText(riotId) || !riotId.contains("#")) {
             model.addAttribute("error", "Invalid Riot ID. Please use the format Name#TAG.");
-            return () -> "index";
+            return CompletableFuture.completedFuture("index");
         }
 
         String[] parts = riotId.split("#", 2);
@@ -118,58 +211,75 @@ public class SummonerController {
 
         if (!StringUtils.hasText(gameName) || !StringUtils.hasText(tagLine)) {
             model.addAttribute("error", "Invalid Riot ID. Name and Tagline cannot be empty.");
-            return () -> "index";
+            return CompletableFuture.completedFuture("index");
         }
 
-        return () -> {
+        if (nonBlocking) {
+            // The lookup can fail on the delay scheduler thread (orTimeout), so rendering gets its own thread
+            return riotApiService.getSummonerProfileDataAsync(gameName, tagLine, profileTimeout)
+                    .handleAsync((profileData, error) -> renderProfile(riotId, profileData, error, model, request, response),
+                            blockingExecutor);
+        }
+        return CompletableFuture.supplyAsync(() -> {
             try {
-                CompletableFuture<SummonerProfileData> profileDataFuture = riotApiService.getSummonerProfileDataAsync(gameName, tagLine);
-                SummonerProfileData profileData = profileDataFuture.join();
-
-                if (profileData.hasError()) {
-                    model.addAttribute("error", profileData.errorMessage());
-                    model.addAttribute("summoner", null);
-                    model.addAttribute("leagueEntries", Collections.emptyList());
-                    model.addAttribute("matchHistory", Collections.emptyList());
-                    model.addAttribute("championPlayCounts", Collections.emptyMap());
-                    model.addAttribute("matchHistoryInfo", profileData.errorMessage());
-                    return "index";
-                }
+                SummonerProfileData profileData = riotApiService.getSummonerProfileDataAsync(gameName, tagLine).join();
+                return renderProfile(riotId, profileData, null, model, request, response);
+            } catch (Exception e) {
+                return renderProfile(riotId, null, e, model, request, response);
+            }
+        }, blockingExecutor);
+    }
 
-                model.addAttribute("summoner", profileData.summoner());
-                model.addAttribute("leagueEntries", profileData.leagueEntries());
-                model.addAttribute("matchHistory", profileData.matchHistory());
-                model.addAttribute("championPlayCounts", profileData.championPlayCounts());
-                model.addAttribute("profileIconUrl", profileData.profileIconUrl());
+    private String renderProfile(String riotId, SummonerProfileData profileData, Throwable error, Model model,
+                                 HttpServletRequest request, HttpServletResponse response) {
+        if (error instanceof CompletionException) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            logger.error("Error processing summoner search for Riot ID '{}': {}", riotId, cause.getMessage(), cause);
+            model.addAttribute("error", "An error occurred: " + cause.getMessage());
+            model.addAttribute("leagueEntries", Collections.emptyList());
+            model.addAttribute("matchHistory", Collections.emptyList());
+            model.addAttribute("championPlayCounts", Collections.emptyMap());
+            model.addAttribute("matchHistoryInfo", "An error occurred while fetching data.");
+            return "index";
+        }
+        if (error != null) {
+            logger.error("Unexpected error during summoner search for Riot ID '{}': {}", riotId, error.getMessage(), error);
+            model.addAttribute("error", "An unexpected error occurred: " + error.getMessage());
+            model.addAttribute("leagueEntries", Collections.emptyList());
+            model.addAttribute("matchHistory", Collections.emptyList());
+            model.addAttribute("championPlayCounts", Collections.emptyMap());
+            model.addAttribute("matchHistoryInfo", "An unexpected error occurred.");
+            return "index";
+        }
 
-                if (profileData.summoner() != null && profileData.suggestion() != null) {
-                    updateSearchHistoryCookie(request, response, riotId, profileData.suggestion());
-                }
-                
-                if (profileData.matchHistory() == null || profileData.matchHistory().isEmpty()) {
-                    if (!model.containsAttribute("error")) {
-                        model.addAttribute("matchHistoryInfo", "No recent matches found or PUUID not available.");
-                    }
-                }
+        if (profileData.hasError()) {
+            model.addAttribute("error", profileData.errorMessage());
+            model.addAttribute("summoner", null);
+            model.addAttribute("leagueEntries", Collections.emptyList());
+            model.addAttribute("matchHistory", Collections.emptyList());
+            model.addAttribute("championPlayCounts", Collections.emptyMap());
+            model.addAttribute("matchHistoryInfo", profileData.errorMessage());
+            return "index";
+        }
 
-            } catch (CompletionException e) {
-                Throwable cause = e.getCause() != null ? e.getCause() : e;
-                logger.error("Error processing summoner search for Riot ID '{}': {}", riotId, cause.getMessage(), cause);
-                model.addAttribute("error", "An error occurred: " + cause.getMessage());
-                model.addAttribute("leagueEntries", Collections.emptyList());
-                model.addAttribute("matchHistory", Collections.emptyList());
-                model.addAttribute("championPlayCounts", Collections.emptyMap());
-                model.addAttribute("matchHistoryInfo", "An error occurred while fetching data.");
-            } catch (Exception e) {
-                logger.error("Unexpected error during summoner search for Riot ID '{}': {}", riotId, e.getMessage(), e);
-                model.addAttribute("error", "An unexpected error occurred: " + e.getMessage());
-                model.addAttribute("leagueEntries", Collections.emptyList());
-                model.addAttribute("matchHistory", Collections.emptyList());
-                model.addAttribute("championPlayCounts", Collections.emptyMap());
-                model.addAttribute("matchHistoryInfo", "An unexpected error occurred.");
+        model.addAttribute("summoner", profileData.summoner());
+        model.addAttribute("leagueEntries", profileData.leagueEntries());
+        model.addAttribute("matchHistory", profileData.matchHistory());
+        model.addAttribute("championPlayCounts", profileData.championPlayCounts());
+        model.addAttribute("profileIconUrl", profileData.profileIconUrl());
+
+        if (profileData.summoner() != null && profileData.suggestion() != null) {
+            updateSearchHistoryCookie(request, response, riotId, profileData.suggestion());
+        }
+
+        if (profileData.partial()) {
+            model.addAttribute("matchHistoryInfo", "Some data took too long to load and is not shown. Search again to refresh.");
+        } else if (profileData.matchHistory() == null || profileData.matchHistory().isEmpty()) {
+            if (!model.containsAttribute("error")) {
+                model.addAttribute("matchHistoryInfo", "No recent matches found or PUUID not available.");
             }
-            return "index";
-        };
+        }
+        return "index";
     }
 
     private Map<String, SummonerSuggestionDTO> getSearchHistoryFromCookie(HttpServletRequest request) {
@@ -212,4 +322,60 @@ public class SummonerController {
             logger.error("Error writing search history cookie: " + e.getMessage(), e);
         }
     }
-} 
+
+    private static final class SseProfileListener implements SummonerProfileListener {
+
+        private final SseEmitter emitter;
+
+        private SseProfileListener(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onSummoner(Summoner summoner, String profileIconUrl) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("summoner", summoner);
+            data.put("profileIconUrl", profileIconUrl);
+            send("summoner", data);
+        }
+
+        @Override
+        public void onLeagueEntries(List<LeagueEntryDTO> leagueEntries) {
+            send("leagueEntries", leagueEntries != null ? leagueEntries : Collections.emptyList());
+        }
+
+        @Override
+        public void onMatch(int index, MatchSummary match) {
+            send("match", Map.of("index", index, "match", match));
+        }
+
+        @Override
+        public void onMatchHistoryComplete(List<MatchSummary> matchHistory, Map<String, Long> championPlayCounts) {
+            Map<String, Integer> lpChanges = new LinkedHashMap<>();
+            for (MatchSummary match : matchHistory) {
+                if (match.getMatchId() != null && match.getLpChange() != null) {
+                    lpChanges.put(match.getMatchId(), match.getLpChange());
+                }
+            }
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("matchCount", matchHistory.size());
+            data.put("championPlayCounts", championPlayCounts);
+            data.put("lpChanges", lpChanges);
+            send("matchHistory", data);
+        }
+
+        @Override
+        public void onError(String message) {
+            send("error", Map.of("error", message));
+        }
+
+        private void send(String eventName, Object data) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already timed out; remaining events are dropped
+                logger.debug("Could not send '{}' event: {}", eventName, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.zerox80.riotapi.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A Riot ID that was resolved at least once, with how often it was looked up. Backs the global
+ * summoner suggestions.
+ */
+@Entity
+@Table(name = "known_players")
+public class KnownPlayer {
+
+    /** Normalized {@code gamename#tagline} (lower case, without diacritics). */
+    @Id
+    @Column(length = 128)
+    private String searchKey;
+
+    @Column(nullable = false)
+    private String riotId;
+
+    private int profileIconId;
+
+    private long summonerLevel;
+
+    @Column(nullable = false)
+    private long lookupCount;
+
+    @Column(nullable = false)
+    private Instant lastSeenAt;
+
+    public KnownPlayer() {
+    }
+
+    public KnownPlayer(String searchKey) {
+        this.searchKey = searchKey;
+    }
+
+    public String getSearchKey() {
+        return searchKey;
+    }
+
+    public void setSearchKey(String searchKey) {
+        this.searchKey = searchKey;
+    }
+
+    public String getRiotId() {
+        return riotId;
+    }
+
+    public void setRiotId(String riotId) {
+        this.riotId = riotId;
+    }
+
+    public int getProfileIconId() {
+        return profileIconId;
+    }
+
+    public void setProfileIconId(int profileIconId) {
+        this.profileIconId = profileIconId;
+    }
+
+    public long getSummonerLevel() {
+        return summonerLevel;
+    }
+
+    public void setSummonerLevel(long summonerLevel) {
+        this.summonerLevel = summonerLevel;
+    }
+
+    public long getLookupCount() {
+        return lookupCount;
+    }
+
+    public void setLookupCount(long lookupCount) {
+        this.lookupCount = lookupCount;
+    }
+
+    public Instant getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Instant lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zerox80.riotapi.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LpHistoryPointDTO {
+    private long timestamp;
+    private int leaguePoints;
+    private String tier;
+    private String rank;
+    /** LP on a continuous ladder (IRON IV 0 LP = 0, each division 100), so promotions do not break the curve. */
+    private int ladderPoints;
+}
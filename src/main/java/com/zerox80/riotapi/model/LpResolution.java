@@ -0,0 +1,11 @@
+package com.zerox80.riotapi.model;
+
+/**
+ * Granularity of a {@link PlayerLpRecord}. Raw snapshots are rolled up into hourly and later daily
+ * points once they leave their retention window.
+ */
+public enum LpResolution {
+    RAW,
+    HOURLY,
+    DAILY
+}
@@ -0,0 +1,56 @@
+package com.zerox80.riotapi.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Persistent copy of a match-v5 payload. Finished matches never change, so rows are never expired.
+ */
+@Entity
+@Table(name = "match_details")
+public class MatchDetailsRecord {
+
+    @Id
+    @Column(length = 64)
+    private String matchId;
+
+    /** Gzip-compressed JSON of the {@link MatchSummary} (or of the full {@link MatchV5Dto} for older rows). */
+    @Column(nullable = false, length = 4 * 1024 * 1024)
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private Instant storedAt;
+
+    public MatchDetailsRecord() {
+    }
+
+    public MatchDetailsRecord(String matchId, byte[] payload, Instant storedAt) {
+        this.matchId = matchId;
+        this.payload = payload;
+        this.storedAt = storedAt;
+    }
+
+    public String getMatchId() {
+        return matchId;
+    }
+
+    public void setMatchId(String matchId) {
+        this.matchId = matchId;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public Instant getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(Instant storedAt) {
+        this.storedAt = storedAt;
+    }
+}
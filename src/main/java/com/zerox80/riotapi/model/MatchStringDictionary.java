@@ -0,0 +1,189 @@
+package com.zerox80.riotapi.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only table that maps the strings repeated across matches (PUUIDs, Riot IDs, champion names, game
+ * modes) to int ids, so every distinct value is held once however many cached {@link MatchSummary}
+ * instances reference it.
+ * <p>
+ * Tables are generational. Once the current table is full, new matches are encoded into a fresh one; every
+ * match keeps a reference to the table it was encoded with, so an old table becomes garbage together with
+ * the last cached match that uses it and the dictionary never outlives the caches. Generations are kept small
+ * ({@link #DEFAULT_CAPACITY} strings) and grow on demand, so a single old match pins little.
+ * <p>
+ * The index from string to id is an open-addressing {@code int[]} next to the {@code String[]} of values, about
+ * 12 bytes per entry on top of the string, which a string pays back from its second use. Ids are handed out under
+ * the table lock, one match at a time. Readers only resolve ids and never lock: a match is only published
+ * (through a future or a cache) after its strings were added, and the values array is handed over through a
+ * volatile field when it grows.
+ */
+public final class MatchStringDictionary {
+
+    /** Id of a null string. */
+    public static final int NULL_ID = -1;
+
+    static final int DEFAULT_CAPACITY = 1 << 13;
+    private static final int INITIAL_SLOTS = 1 << 8;
+
+    // Compact string header and value array; the slot in the values array and, at the index's average load of
+    // about one half, two of its slots
+    private static final int STRING_OVERHEAD = 40;
+    private static final int ENTRY_OVERHEAD = 4 + 2 * 4;
+
+    private static final List<WeakReference<MatchStringDictionary>> generations = new CopyOnWriteArrayList<>();
+    private static volatile MatchStringDictionary current = newGeneration(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    // id + 1 per slot, 0 marks an empty slot; only touched under the table lock
+    private int[] index = new int[INITIAL_SLOTS];
+    private volatile String[] values = new String[INITIAL_SLOTS / 2];
+    private int size;
+    private long encodedBytes;
+    private long storedBytes;
+
+    MatchStringDictionary(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Encodes the strings of one match into the current table, rolling over to a new generation if they do not
+     * fit. All strings of a match always end up in the same table.
+     *
+     * @return the table the ids in {@code target} refer to and the bytes it grew by, so the match that
+     * introduced new strings can be weighed for them.
+     */
+    public static Encoded encodeMatch(String[] strings, int[] target) {
+        MatchStringDictionary dictionary = current;
+        long addedBytes;
+        while ((addedBytes = dictionary.tryEncode(strings, target)) < 0) {
+            synchronized (MatchStringDictionary.class) {
+                if (current == dictionary) {
+                    current = newGeneration(dictionary.capacity);
+                }
+                dictionary = current;
+            }
+        }
+        return new Encoded(dictionary, addedBytes);
+    }
+
+    private static MatchStringDictionary newGeneration(int capacity) {
+        MatchStringDictionary dictionary = new MatchStringDictionary(capacity);
+        generations.removeIf(reference -> reference.get() == null);
+        generations.add(new WeakReference<>(dictionary));
+        return dictionary;
+    }
+
+    /**
+     * Aggregated over all generations still referenced by a cached match.
+     */
+    public static Stats stats() {
+        long entries = 0;
+        long encoded = 0;
+        long stored = 0;
+        int live = 0;
+        for (WeakReference<MatchStringDictionary> reference : generations) {
+            MatchStringDictionary dictionary = reference.get();
+            if (dictionary == null) {
+                continue;
+            }
+            synchronized (dictionary) {
+                live++;
+                entries += dictionary.size;
+                encoded += dictionary.encodedBytes;
+                stored += dictionary.storedBytes;
+            }
+        }
+        // An id takes the place of a reference of the same size, so only the table itself is counted against
+        return new Stats(live, entries, stored, encoded - stored);
+    }
+
+    /**
+     * Replaces every string with its id, adding the ones not in the table yet.
+     *
+     * @return the bytes the table grew by, or -1 without encoding anything if it has no room for all of them.
+     */
+    synchronized long tryEncode(String[] strings, int[] target) {
+        if (strings.length > capacity) {
+            throw new IllegalArgumentException("Cannot encode " + strings.length + " strings into a table of " + capacity);
+        }
+        if (size + strings.length > capacity) {
+            return -1;
+        }
+        long added = 0;
+        for (int i = 0; i < strings.length; i++) {
+            String value = strings[i];
+            if (value == null) {
+                target[i] = NULL_ID;
+                continue;
+            }
+            long bytes = STRING_OVERHEAD + value.length();
+            encodedBytes += bytes;
+            int slot = slotOf(value);
+            int id = index[slot] - 1;
+            if (id < 0) {
+                id = size++;
+                if (id == values.length) {
+                    values = Arrays.copyOf(values, Math.min(capacity, id * 2));
+                }
+                values[id] = value;
+                index[slot] = id + 1;
+                added += bytes + ENTRY_OVERHEAD;
+                if (size * 4 > index.length * 3) {
+                    rehash();
+                }
+            }
+            target[i] = id;
+        }
+        storedBytes += added;
+        return added;
+    }
+
+    /**
+     * Linear probing: the slot holding the string, or the empty slot where it belongs.
+     */
+    private int slotOf(String value) {
+        String[] current = values;
+        int mask = index.length - 1;
+        int slot = spread(value.hashCode()) & mask;
+        while (index[slot] != 0 && !value.equals(current[index[slot] - 1])) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        int[] grown = new int[index.length * 2];
+        int mask = grown.length - 1;
+        String[] current = values;
+        for (int id = 0; id < size; id++) {
+            int slot = spread(current[id].hashCode()) & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = id + 1;
+        }
+        index = grown;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    public String get(int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+
+    public record Encoded(MatchStringDictionary dictionary, long addedBytes) {
+    }
+
+    /**
+     * @param storedBytes bytes of the distinct strings held by the live tables, including their per-entry overhead.
+     * @param savedBytes  bytes the encoded strings would take as per-match copies, minus {@code storedBytes}.
+     */
+    public record Stats(int generations, long entries, long storedBytes, long savedBytes) {
+    }
+}
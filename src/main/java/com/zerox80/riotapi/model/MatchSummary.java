@@ -0,0 +1,215 @@
+package com.zerox80.riotapi.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact, immutable projection of a match-v5 payload with only what the profile page and the aggregates
+ * need. {@link com.zerox80.riotapi.client.RiotApiClient} builds it once at decode time; the caches, the match
+ * store and everything downstream hold this instead of the full {@link MatchV5Dto} graph.
+ * <p>
+ * Participants are stored column-wise in two primitive arrays: the ids of their strings in a
+ * {@link MatchStringDictionary} and their stats. {@link #getParticipants()} hands out {@link ParticipantSummary}
+ * views over these arrays instead of copies.
+ * <p>
+ * {@code lpChange} depends on whose profile is shown, so it is never set on a shared instance;
+ * {@link #withLpChange(Integer)} returns a copy that shares the arrays.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class MatchSummary {
+
+    // Per participant: puuid, championName, riotIdGameName, riotIdTagline, summonerName
+    static final int PUUID = 0;
+    static final int CHAMPION_NAME = 1;
+    static final int RIOT_ID_GAME_NAME = 2;
+    static final int RIOT_ID_TAGLINE = 3;
+    static final int SUMMONER_NAME = 4;
+    private static final int STRINGS_PER_PARTICIPANT = 5;
+
+    // Per participant: kills, deaths, assists, teamId, win (0 or 1)
+    static final int KILLS = 0;
+    static final int DEATHS = 1;
+    static final int ASSISTS = 2;
+    static final int TEAM_ID = 3;
+    static final int WIN = 4;
+    private static final int STATS_PER_PARTICIPANT = 5;
+
+    private final String matchId;
+    private final long gameEndTimestamp;
+    private final int gameDuration;
+    private final int queueId;
+    private final MatchStringDictionary dictionary;
+    // Index 0 is the game mode, followed by the participant strings
+    private final int[] stringIds;
+    private final short[] stats;
+    private final int dictionaryBytes;
+    private final Integer lpChange;
+
+    private MatchSummary(String matchId, long gameEndTimestamp, int gameDuration, int queueId,
+                         MatchStringDictionary dictionary, int[] stringIds, short[] stats, int dictionaryBytes,
+                         Integer lpChange) {
+        this.matchId = matchId;
+        this.gameEndTimestamp = gameEndTimestamp;
+        this.gameDuration = gameDuration;
+        this.queueId = queueId;
+        this.dictionary = dictionary;
+        this.stringIds = stringIds;
+        this.stats = stats;
+        this.dictionaryBytes = dictionaryBytes;
+        this.lpChange = lpChange;
+    }
+
+    @JsonCreator
+    public static MatchSummary of(@JsonProperty("matchId") String matchId,
+                                  @JsonProperty("gameEndTimestamp") long gameEndTimestamp,
+                                  @JsonProperty("gameDuration") int gameDuration,
+                                  @JsonProperty("queueId") int queueId,
+                                  @JsonProperty("gameMode") String gameMode,
+                                  @JsonProperty("participants") List<Participant> participants,
+                                  @JsonProperty("lpChange") Integer lpChange) {
+        List<Participant> present = participants == null ? List.of()
+                : participants.stream().filter(Objects::nonNull).toList();
+        String[] strings = new String[1 + present.size() * STRINGS_PER_PARTICIPANT];
+        short[] stats = new short[present.size() * STATS_PER_PARTICIPANT];
+        strings[0] = gameMode;
+        for (int i = 0; i < present.size(); i++) {
+            Participant participant = present.get(i);
+            int s = 1 + i * STRINGS_PER_PARTICIPANT;
+            strings[s + PUUID] = participant.puuid();
+            strings[s + CHAMPION_NAME] = participant.championName();
+            strings[s + RIOT_ID_GAME_NAME] = participant.riotIdGameName();
+            strings[s + RIOT_ID_TAGLINE] = participant.riotIdTagline();
+            strings[s + SUMMONER_NAME] = participant.summonerName();
+            int t = i * STATS_PER_PARTICIPANT;
+            stats[t + KILLS] = (short) participant.kills();
+            stats[t + DEATHS] = (short) participant.deaths();
+            stats[t + ASSISTS] = (short) participant.assists();
+            stats[t + TEAM_ID] = (short) participant.teamId();
+            stats[t + WIN] = (short) (participant.win() ? 1 : 0);
+        }
+        int[] stringIds = new int[strings.length];
+        MatchStringDictionary.Encoded encoded = MatchStringDictionary.encodeMatch(strings, stringIds);
+        return new MatchSummary(matchId, gameEndTimestamp, gameDuration, queueId, encoded.dictionary(), stringIds, stats,
+                (int) Math.min(Integer.MAX_VALUE, encoded.addedBytes()), lpChange);
+    }
+
+    /**
+     * Projects a decoded match; null stays null.
+     */
+    public static MatchSummary from(MatchV5Dto match) {
+        if (match == null) {
+            return null;
+        }
+        String matchId = match.getMetadata() != null ? match.getMetadata().getMatchId() : null;
+        InfoDto info = match.getInfo();
+        if (info == null) {
+            return of(matchId, 0, 0, 0, null, List.of(), null);
+        }
+        List<Participant> participants = info.getParticipants() == null ? List.of()
+                : info.getParticipants().stream()
+                        .filter(Objects::nonNull)
+                        .map(Participant::from)
+                        .toList();
+        return of(matchId, info.getGameEndTimestamp(), (int) info.getGameDuration(), info.getQueueId(),
+                info.getGameMode(), participants, null);
+    }
+
+    /**
+     * Copy of this match with the LP change of the searched player.
+     */
+    public MatchSummary withLpChange(Integer lpChange) {
+        if (Objects.equals(lpChange, this.lpChange)) {
+            return this;
+        }
+        return new MatchSummary(matchId, gameEndTimestamp, gameDuration, queueId, dictionary, stringIds, stats,
+                dictionaryBytes, lpChange);
+    }
+
+    /**
+     * The participant with the given PUUID, or null if they did not play in this match.
+     */
+    public ParticipantSummary participant(String puuid) {
+        if (puuid == null) {
+            return null;
+        }
+        // Compares the resolved strings rather than looking the PUUID up in the shared table, so readers never lock
+        for (int i = 0; i < participantCount(); i++) {
+            if (puuid.equals(participantString(i, PUUID))) {
+                return new ParticipantSummary(this, i);
+            }
+        }
+        return null;
+    }
+
+    public int participantCount() {
+        return stats.length / STATS_PER_PARTICIPANT;
+    }
+
+    /**
+     * Bytes the dictionary grew by when this match was encoded; the match is weighed for them.
+     */
+    public int dictionaryBytes() {
+        return dictionaryBytes;
+    }
+
+    String participantString(int index, int field) {
+        return dictionary.get(stringIds[1 + index * STRINGS_PER_PARTICIPANT + field]);
+    }
+
+    int participantStat(int index, int field) {
+        return stats[index * STATS_PER_PARTICIPANT + field];
+    }
+
+    public String getMatchId() {
+        return matchId;
+    }
+    public long getGameEndTimestamp() {
+        return gameEndTimestamp;
+    }
+    public int getGameDuration() {
+        return gameDuration;
+    }
+    public int getQueueId() {
+        return queueId;
+    }
+    public String getGameMode() {
+        return dictionary.get(stringIds[0]);
+    }
+    public List<ParticipantSummary> getParticipants() {
+        return new AbstractList<>() {
+            @Override
+            public ParticipantSummary get(int index) {
+                Objects.checkIndex(index, participantCount());
+                return new ParticipantSummary(MatchSummary.this, index);
+            }
+
+            @Override
+            public int size() {
+                return participantCount();
+            }
+        };
+    }
+    public Integer getLpChange() {
+        return lpChange;
+    }
+
+    /**
+     * Input shape of one participant, used when a summary is built and when it is read back from JSON.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Participant(String puuid, String championName, String riotIdGameName, String riotIdTagline,
+                              String summonerName, int kills, int deaths, int assists, int teamId, boolean win) {
+
+        public static Participant from(ParticipantDto participant) {
+            return new Participant(participant.getPuuid(), participant.getChampionName(),
+                    participant.getRiotIdGameName(), participant.getRiotIdTagline(), participant.getSummonerName(),
+                    participant.getKills(), participant.getDeaths(), participant.getAssists(),
+                    participant.getTeamId(), participant.isWin());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.zerox80.riotapi.model;
+
+/**
+ * One participant of a {@link MatchSummary}, read straight from the arrays of the match; nothing is copied
+ * when the view layer iterates participants.
+ */
+public final class ParticipantSummary {
+
+    private final MatchSummary match;
+    private final int index;
+
+    ParticipantSummary(MatchSummary match, int index) {
+        this.match = match;
+        this.index = index;
+    }
+
+    public String getPuuid() {
+        return match.participantString(index, MatchSummary.PUUID);
+    }
+    public String getChampionName() {
+        return match.participantString(index, MatchSummary.CHAMPION_NAME);
+    }
+    public String getRiotIdGameName() {
+        return match.participantString(index, MatchSummary.RIOT_ID_GAME_NAME);
+    }
+    public String getRiotIdTagline() {
+        return match.participantString(index, MatchSummary.RIOT_ID_TAGLINE);
+    }
+    public String getSummonerName() {
+        return match.participantString(index, MatchSummary.SUMMONER_NAME);
+    }
+    public int getKills() {
+        return match.participantStat(index, MatchSummary.KILLS);
+    }
+    public int getDeaths() {
+        return match.participantStat(index, MatchSummary.DEATHS);
+    }
+    public int getAssists() {
+        return match.participantStat(index, MatchSummary.ASSISTS);
+    }
+    public int getTeamId() {
+        return match.participantStat(index, MatchSummary.TEAM_ID);
+    }
+    public boolean isWin() {
+        return match.participantStat(index, MatchSummary.WIN) != 0;
+    }
+
+    public String getKda() {
+        return getKills() + "/" + getDeaths() + "/" + getAssists();
+    }
+}
@@ -1,16 +1,21 @@
 package com.zerox80.riotapi.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
 import java.time.Instant;
+import java.util.Objects;
 
 @Entity
+@DynamicUpdate
 @Table(name = "player_lp_records", indexes = {
     @Index(name = "idx_puuid_queuetype_timestamp", columnList = "puuid, queueType, timestamp DESC")
 })
 public class PlayerLpRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_lp_records_seq")
+    @SequenceGenerator(name = "player_lp_records_seq", sequenceName = "player_lp_records_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -28,6 +33,16 @@ public class PlayerLpRecord {
     private String tier;
     private String rank;
 
+    /**
+     * Latest snapshot that still showed this LP, tier and rank. Snapshots are only stored when the
+     * value changes, so a point covers {@code [timestamp, lastSeenAt]}.
+     */
+    private Instant lastSeenAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private LpResolution resolution = LpResolution.RAW;
+
     public PlayerLpRecord() {
     }
 
@@ -95,4 +110,35 @@ public class PlayerLpRecord {
     public void setRank(String rank) {
         this.rank = rank;
     }
+
+    public Instant getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Instant lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public LpResolution getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(LpResolution resolution) {
+        this.resolution = resolution;
+    }
+
+    /**
+     * Last time this value was observed, falling back to the timestamp for rows written before
+     * {@code lastSeenAt} existed.
+     */
+    public Instant lastObservedAt() {
+        return lastSeenAt != null && lastSeenAt.isAfter(timestamp) ? lastSeenAt : timestamp;
+    }
+
+    public boolean hasSameStanding(PlayerLpRecord other) {
+        return other != null
+                && leaguePoints == other.leaguePoints
+                && Objects.equals(tier, other.tier)
+                && Objects.equals(rank, other.rank);
+    }
 } 
\ No newline at end of file
@@ -6,20 +6,21 @@ import java.util.Map;
 public record SummonerProfileData(
     Summoner summoner,
     List<LeagueEntryDTO> leagueEntries,
-    List<MatchV5Dto> matchHistory,
+    List<MatchSummary> matchHistory,
     SummonerSuggestionDTO suggestion,
     Map<String, Long> championPlayCounts,
     String profileIconUrl,
-    String errorMessage // Optional: to transport error details from service to controller
+    String errorMessage, // Optional: to transport error details from service to controller
+    boolean partial // True if some league entries or matches did not arrive before the request deadline
 ) {
     // Constructor for success case
-    public SummonerProfileData(Summoner summoner, List<LeagueEntryDTO> leagueEntries, List<MatchV5Dto> matchHistory, SummonerSuggestionDTO suggestion, Map<String, Long> championPlayCounts, String profileIconUrl) {
-        this(summoner, leagueEntries, matchHistory, suggestion, championPlayCounts, profileIconUrl, null);
+    public SummonerProfileData(Summoner summoner, List<LeagueEntryDTO> leagueEntries, List<MatchSummary> matchHistory, SummonerSuggestionDTO suggestion, Map<String, Long> championPlayCounts, String profileIconUrl) {
+        this(summoner, leagueEntries, matchHistory, suggestion, championPlayCounts, profileIconUrl, null, false);
     }
 
     // Constructor for error case
     public SummonerProfileData(String errorMessage) {
-        this(null, List.of(), List.of(), null, Map.of(), null, errorMessage);
+        this(null, List.of(), List.of(), null, Map.of(), null, errorMessage, false);
     }
 
     public boolean hasError() {
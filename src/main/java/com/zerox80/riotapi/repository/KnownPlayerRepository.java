@@ -0,0 +1,14 @@
+package com.zerox80.riotapi.repository;
+
+import com.zerox80.riotapi.model.KnownPlayer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface KnownPlayerRepository extends JpaRepository<KnownPlayer, String> {
+
+    List<KnownPlayer> findAllByOrderByLookupCountDesc(Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.zerox80.riotapi.repository;
+
+import com.zerox80.riotapi.model.MatchDetailsRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchDetailsRecordRepository extends JpaRepository<MatchDetailsRecord, String> {
+}
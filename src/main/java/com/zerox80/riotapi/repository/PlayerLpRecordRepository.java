@@ -1,8 +1,14 @@
 package com.zerox80.riotapi.repository;
 
+import com.zerox80.riotapi.model.LpResolution;
 import com.zerox80.riotapi.model.PlayerLpRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
@@ -17,7 +23,62 @@ public interface PlayerLpRecordRepository extends JpaRepository<PlayerLpRecord,
     Optional<PlayerLpRecord> findFirstByPuuidAndQueueTypeAndTimestampGreaterThanEqualOrderByTimestampAsc(
             String puuid, String queueType, Instant timestamp);
 
+    /**
+     * Points between {@code from} and {@code to}, plus the last point before {@code from} and the first
+     * point at or after {@code to}, in ascending order.
+     */
+    @Query("""
+            select r from PlayerLpRecord r
+            where r.puuid = :puuid and r.queueType = :queueType
+              and r.timestamp >= coalesce((select max(b.timestamp) from PlayerLpRecord b
+                      where b.puuid = :puuid and b.queueType = :queueType and b.timestamp < :from), :from)
+              and r.timestamp <= coalesce((select min(a.timestamp) from PlayerLpRecord a
+                      where a.puuid = :puuid and a.queueType = :queueType and a.timestamp >= :to), :to)
+            order by r.timestamp asc""")
+    List<PlayerLpRecord> findTimelineBracketing(@Param("puuid") String puuid, @Param("queueType") String queueType,
+                                                @Param("from") Instant from, @Param("to") Instant to);
+
     List<PlayerLpRecord> findByPuuidAndQueueTypeOrderByTimestampDesc(String puuid, String queueType);
 
     List<PlayerLpRecord> findByPuuid(String puuid);
+
+    Optional<PlayerLpRecord> findFirstByPuuidAndQueueTypeOrderByTimestampDesc(String puuid, String queueType);
+
+    @Query("select distinct r.puuid, r.queueType from PlayerLpRecord r")
+    List<Object[]> findDistinctPuuidAndQueueType();
+
+    Optional<PlayerLpRecord> findFirstByPuuidAndQueueTypeAndTimestampLessThanEqualOrderByTimestampDesc(
+            String puuid, String queueType, Instant timestamp);
+
+    /**
+     * One page of points up to {@code to}, ordered by timestamp and id, that come after the point
+     * ({@code afterTimestamp}, {@code afterId}). Keyset paging, so later pages cost the same as the first.
+     */
+    @Query("""
+            select r from PlayerLpRecord r
+            where r.puuid = :puuid and r.queueType = :queueType and r.timestamp <= :to
+              and (r.timestamp > :afterTimestamp or (r.timestamp = :afterTimestamp and r.id > :afterId))
+            order by r.timestamp asc, r.id asc""")
+    List<PlayerLpRecord> findPageAfter(@Param("puuid") String puuid, @Param("queueType") String queueType,
+                                       @Param("afterTimestamp") Instant afterTimestamp, @Param("afterId") long afterId,
+                                       @Param("to") Instant to, Pageable pageable);
+
+    @Query("select distinct r.puuid, r.queueType from PlayerLpRecord r where r.resolution = :resolution and r.timestamp < :cutoff")
+    List<Object[]> findKeysWithPointsBefore(@Param("resolution") LpResolution resolution, @Param("cutoff") Instant cutoff);
+
+    List<PlayerLpRecord> findByPuuidAndQueueTypeAndResolutionAndTimestampBeforeOrderByTimestampAsc(
+            String puuid, String queueType, LpResolution resolution, Instant cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("update PlayerLpRecord r set r.resolution = :resolution where r.id in :ids")
+    int updateResolution(@Param("ids") List<Long> ids, @Param("resolution") LpResolution resolution);
+
+    /**
+     * Marks rows written before the resolution column existed as raw snapshots.
+     */
+    @Transactional
+    @Modifying
+    @Query("update PlayerLpRecord r set r.resolution = com.zerox80.riotapi.model.LpResolution.RAW where r.resolution is null")
+    int markLegacyRowsRaw();
 } 
\ No newline at end of file
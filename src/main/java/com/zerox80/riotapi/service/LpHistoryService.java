@@ -0,0 +1,180 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.model.LpHistoryPointDTO;
+import com.zerox80.riotapi.model.LpResolution;
+import com.zerox80.riotapi.model.PlayerLpRecord;
+import com.zerox80.riotapi.repository.PlayerLpRecordRepository;
+import com.zerox80.riotapi.util.Downsampling;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * LP curves for charts and the retention rollups that keep {@code player_lp_records} bounded.
+ * <p>
+ * Raw snapshots older than {@code raw-retention-days} are reduced to one point per hour, and hourly points
+ * older than {@code hourly-retention-days} to one point per day. The point kept for a bucket is its last
+ * one, so it carries the standing the player ended the bucket with.
+ */
+@Service
+public class LpHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LpHistoryService.class);
+
+    private static final List<String> TIERS = List.of(
+            "IRON", "BRONZE", "SILVER", "GOLD", "PLATINUM", "EMERALD", "DIAMOND");
+    private static final List<String> DIVISIONS = List.of("IV", "III", "II", "I");
+    static final int MAX_POINTS = 2000;
+    static final int PAGE_SIZE = 1000;
+
+    private final PlayerLpRecordRepository playerLpRecordRepository;
+    private final PlayerLpRecordWriter playerLpRecordWriter;
+    private final boolean rollupEnabled;
+    private final Duration rawRetention;
+    private final Duration hourlyRetention;
+
+    public LpHistoryService(PlayerLpRecordRepository playerLpRecordRepository,
+                            PlayerLpRecordWriter playerLpRecordWriter,
+                            @Value("${riot.lp-records.rollup.enabled:true}") boolean rollupEnabled,
+                            @Value("${riot.lp-records.rollup.raw-retention-days:7}") long rawRetentionDays,
+                            @Value("${riot.lp-records.rollup.hourly-retention-days:90}") long hourlyRetentionDays) {
+        this.playerLpRecordRepository = playerLpRecordRepository;
+        this.playerLpRecordWriter = playerLpRecordWriter;
+        this.rollupEnabled = rollupEnabled;
+        this.rawRetention = Duration.ofDays(rawRetentionDays);
+        this.hourlyRetention = Duration.ofDays(hourlyRetentionDays);
+    }
+
+    /**
+     * Returns the player's LP curve between {@code from} and {@code to}, downsampled to at most
+     * {@code maxPoints} points with LTTB over the ladder value.
+     * <p>
+     * The range is read in pages of {@value #PAGE_SIZE} rows. A range that needs more than one page is first
+     * reduced to the first, last, lowest and highest point of {@code maxPoints} equal time buckets, so memory
+     * stays bounded by the point budget however long the range is, and peaks and drops survive for LTTB.
+     */
+    public List<LpHistoryPointDTO> getLpHistory(String puuid, String queueType, Instant from, Instant to, int maxPoints) {
+        int threshold = Math.max(2, Math.min(maxPoints, MAX_POINTS));
+        List<PlayerLpRecord> page = playerLpRecordRepository.findPageAfter(
+                puuid, queueType, from, Long.MIN_VALUE, to, PageRequest.of(0, PAGE_SIZE));
+        List<LpHistoryPointDTO> points;
+        if (page.size() < PAGE_SIZE) {
+            points = new ArrayList<>(page.size());
+            for (PlayerLpRecord record : page) {
+                points.add(toPoint(record));
+            }
+        } else {
+            points = bucketExtremes(puuid, queueType, to, page, threshold);
+        }
+        return Downsampling.largestTriangleThreeBuckets(points, threshold,
+                LpHistoryPointDTO::getTimestamp, LpHistoryPointDTO::getLadderPoints);
+    }
+
+    private List<LpHistoryPointDTO> bucketExtremes(String puuid, String queueType, Instant to,
+                                                   List<PlayerLpRecord> firstPage, int buckets) {
+        long start = firstPage.get(0).getTimestamp().toEpochMilli();
+        long end = playerLpRecordRepository
+                .findFirstByPuuidAndQueueTypeAndTimestampLessThanEqualOrderByTimestampDesc(puuid, queueType, to)
+                .map(record -> record.getTimestamp().toEpochMilli())
+                .orElse(to.toEpochMilli());
+        double bucketWidth = Math.max(1, end - start + 1) / (double) buckets;
+        // Per bucket: first, lowest, highest and last point
+        LpHistoryPointDTO[][] extremes = new LpHistoryPointDTO[buckets][4];
+        List<PlayerLpRecord> page = firstPage;
+        while (!page.isEmpty()) {
+            for (PlayerLpRecord record : page) {
+                LpHistoryPointDTO point = toPoint(record);
+                int bucket = (int) Math.min(buckets - 1, Math.max(0, (point.getTimestamp() - start) / bucketWidth));
+                LpHistoryPointDTO[] slot = extremes[bucket];
+                if (slot[0] == null) {
+                    slot[0] = point;
+                    slot[1] = point;
+                    slot[2] = point;
+                }
+                if (point.getLadderPoints() < slot[1].getLadderPoints()) {
+                    slot[1] = point;
+                }
+                if (point.getLadderPoints() > slot[2].getLadderPoints()) {
+                    slot[2] = point;
+                }
+                slot[3] = point;
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            PlayerLpRecord last = page.get(page.size() - 1);
+            page = playerLpRecordRepository.findPageAfter(
+                    puuid, queueType, last.getTimestamp(), last.getId(), to, PageRequest.of(0, PAGE_SIZE));
+        }
+
+        List<LpHistoryPointDTO> points = new ArrayList<>(buckets * 4);
+        for (LpHistoryPointDTO[] slot : extremes) {
+            if (slot[0] == null) {
+                continue;
+            }
+            Arrays.stream(slot).distinct()
+                    .sorted(Comparator.comparingLong(LpHistoryPointDTO::getTimestamp))
+                    .forEach(points::add);
+        }
+        return points;
+    }
+
+    @Scheduled(cron = "${riot.lp-records.rollup.cron:0 17 * * * *}")
+    public void rollUp() {
+        if (!rollupEnabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        playerLpRecordRepository.markLegacyRowsRaw();
+        int hourly = rollUp(LpResolution.RAW, LpResolution.HOURLY, now.minus(rawRetention), ChronoUnit.HOURS);
+        int daily = rollUp(LpResolution.HOURLY, LpResolution.DAILY, now.minus(hourlyRetention), ChronoUnit.DAYS);
+        if (hourly > 0 || daily > 0) {
+            logger.info("LP rollup removed {} raw and {} hourly point(s)", hourly, daily);
+        }
+    }
+
+    /**
+     * Keeps the last {@code source} point of every bucket before {@code cutoff} as a {@code target} point
+     * and deletes the others.
+     *
+     * @return the number of rows removed.
+     */
+    int rollUp(LpResolution source, LpResolution target, Instant cutoff, ChronoUnit bucketUnit) {
+        int removed = 0;
+        for (Object[] key : playerLpRecordRepository.findKeysWithPointsBefore(source, cutoff)) {
+            String puuid = (String) key[0];
+            String queueType = (String) key[1];
+            try {
+                removed += playerLpRecordWriter.rollUp(puuid, queueType, source, target, cutoff, bucketUnit);
+            } catch (Exception e) {
+                logger.warn("LP rollup for {} ({}) failed: {}", puuid, queueType, e.getMessage());
+            }
+        }
+        return removed;
+    }
+
+    private static LpHistoryPointDTO toPoint(PlayerLpRecord record) {
+        return new LpHistoryPointDTO(record.getTimestamp().toEpochMilli(), record.getLeaguePoints(),
+                record.getTier(), record.getRank(), ladderPoints(record));
+    }
+
+    private static int ladderPoints(PlayerLpRecord record) {
+        int tier = TIERS.indexOf(record.getTier());
+        if (tier < 0) {
+            // MASTER and above have no divisions and share one LP scale
+            return TIERS.size() * 400 + record.getLeaguePoints();
+        }
+        return tier * 400 + Math.max(0, DIVISIONS.indexOf(record.getRank())) * 100 + record.getLeaguePoints();
+    }
+}
@@ -1,7 +1,7 @@
 package com.zerox80.riotapi.service;
 
 import com.zerox80.riotapi.model.LeagueEntryDTO;
-import com.zerox80.riotapi.model.MatchV5Dto;
+import com.zerox80.riotapi.model.MatchSummary;
 import com.zerox80.riotapi.model.PlayerLpRecord;
 import com.zerox80.riotapi.model.Summoner;
 import com.zerox80.riotapi.repository.PlayerLpRecordRepository;
@@ -13,8 +13,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -22,90 +26,137 @@ public class PlayerLpRecordService {
 
     private static final Logger logger = LoggerFactory.getLogger(PlayerLpRecordService.class);
     private final PlayerLpRecordRepository playerLpRecordRepository;
+    private final PlayerLpRecordWriter playerLpRecordWriter;
 
     @Autowired
-    public PlayerLpRecordService(PlayerLpRecordRepository playerLpRecordRepository) {
+    public PlayerLpRecordService(PlayerLpRecordRepository playerLpRecordRepository, PlayerLpRecordWriter playerLpRecordWriter) {
         this.playerLpRecordRepository = playerLpRecordRepository;
+        this.playerLpRecordWriter = playerLpRecordWriter;
     }
 
     @Transactional
     public void savePlayerLpRecords(String puuid, List<LeagueEntryDTO> leagueEntries, Instant timestamp) {
+        List<PlayerLpRecord> records = toRecords(puuid, leagueEntries, timestamp);
+        playerLpRecordWriter.persist(records);
+        logger.debug("Saved {} LP snapshot(s) for puuid {}", records.size(), puuid);
+    }
+
+    /**
+     * Like {@link #savePlayerLpRecords(String, List, Instant)}, but hands the records to the
+     * write-behind writer instead of waiting for the database.
+     */
+    public void recordPlayerLpSnapshots(String puuid, List<LeagueEntryDTO> leagueEntries, Instant timestamp) {
+        List<PlayerLpRecord> records = toRecords(puuid, leagueEntries, timestamp);
+        if (!records.isEmpty()) {
+            playerLpRecordWriter.enqueue(records);
+            logger.debug("Queued {} LP record(s) for puuid {}", records.size(), puuid);
+        }
+    }
+
+    private List<PlayerLpRecord> toRecords(String puuid, List<LeagueEntryDTO> leagueEntries, Instant timestamp) {
         Instant ts = timestamp != null ? timestamp : Instant.now();
+        List<PlayerLpRecord> records = new ArrayList<>();
         for (LeagueEntryDTO entry : leagueEntries) {
             if ("RANKED_SOLO_5x5".equals(entry.getQueueType()) || "RANKED_FLEX_SR".equals(entry.getQueueType())) {
-                PlayerLpRecord record = new PlayerLpRecord(
+                records.add(new PlayerLpRecord(
                         puuid,
                         entry.getQueueType(),
                         ts,
                         entry.getLeaguePoints(),
                         entry.getTier(),
                         entry.getRank()
-                );
-                playerLpRecordRepository.save(record);
-                logger.debug("Saved LP record for puuid {}, queue {}: {} LP at {}", puuid, entry.getQueueType(), entry.getLeaguePoints(), ts);
+                ));
             }
         }
+        return records;
     }
 
-    public void calculateAndSetLpChangesForMatches(Summoner summoner, List<MatchV5Dto> matchHistory) {
+    /**
+     * Returns the match history with {@code lpChange} set from the searched player's LP snapshots. Matches are
+     * shared through the caches, so annotated copies are returned in the original order instead of mutating them.
+     */
+    public List<MatchSummary> withLpChanges(Summoner summoner, List<MatchSummary> matchHistory) {
         if (summoner == null || !StringUtils.hasText(summoner.getPuuid()) || matchHistory == null || matchHistory.isEmpty()) {
-            return;
+            return matchHistory;
         }
 
-        for (MatchV5Dto match : matchHistory) {
-            if (match.getInfo() == null) continue;
-
-            int queueId = match.getInfo().getQueueId();
-            String queueTypeForDbQuery;
+        Map<String, List<MatchSummary>> matchesByQueue = new HashMap<>();
+        for (MatchSummary match : matchHistory) {
+            int queueId = match.getQueueId();
             if (queueId == 420) {
-                queueTypeForDbQuery = "RANKED_SOLO_5x5";
+                matchesByQueue.computeIfAbsent("RANKED_SOLO_5x5", k -> new ArrayList<>()).add(match);
             } else if (queueId == 440) {
-                queueTypeForDbQuery = "RANKED_FLEX_SR";
-            } else {
-                continue;
+                matchesByQueue.computeIfAbsent("RANKED_FLEX_SR", k -> new ArrayList<>()).add(match);
             }
+        }
 
-            Instant matchEndTime = Instant.ofEpochMilli(match.getInfo().getGameEndTimestamp());
-
+        Map<String, Integer> lpChanges = new HashMap<>();
+        matchesByQueue.forEach((queueType, matches) -> {
             try {
-                Optional<PlayerLpRecord> recordBeforeOpt = playerLpRecordRepository
-                        .findFirstByPuuidAndQueueTypeAndTimestampBeforeOrderByTimestampDesc(
-                                summoner.getPuuid(), queueTypeForDbQuery, matchEndTime);
-
-                Optional<PlayerLpRecord> recordAfterOpt = playerLpRecordRepository
-                        .findFirstByPuuidAndQueueTypeAndTimestampGreaterThanEqualOrderByTimestampAsc(
-                                summoner.getPuuid(), queueTypeForDbQuery, matchEndTime);
-
-                if (recordBeforeOpt.isPresent() && recordAfterOpt.isPresent()) {
-                    PlayerLpRecord recordBefore = recordBeforeOpt.get();
-                    PlayerLpRecord recordAfter = recordAfterOpt.get();
-
-                    if (recordAfter.getTimestamp().isBefore(matchEndTime)) {
-                        logger.debug("LP record after match {} for PUUID {} (queue {}) occurs before match end time {}.",
-                                match.getMetadata().getMatchId(), summoner.getPuuid(), queueTypeForDbQuery, matchEndTime);
-                        continue;
-                    }
-
-                    int lpBefore = recordBefore.getLeaguePoints();
-                    int lpAfter = recordAfter.getLeaguePoints();
-                    int lpChange = lpAfter - lpBefore;
-
-                    if (!recordBefore.getTier().equals(recordAfter.getTier()) || !recordBefore.getRank().equals(recordAfter.getRank())) {
-                        logger.warn("Tier/Rank changed for match {}. PUUID: {}. Before: {} {} {} LP, After: {} {} {} LP. LP Change calculation might be inaccurate or represent promotion/demotion.",
-                                match.getMetadata().getMatchId(), summoner.getPuuid(),
-                                recordBefore.getTier(), recordBefore.getRank(), recordBefore.getLeaguePoints(),
-                                recordAfter.getTier(), recordAfter.getRank(), recordAfter.getLeaguePoints());
-                        match.getInfo().setLpChange(null);
-                    } else {
-                        match.getInfo().setLpChange(lpChange);
-                    }
-                } else {
-                    logger.debug("LP records before or after match {} not found for PUUID {} and queue {}. Cannot calculate LP change.",
-                            match.getMetadata().getMatchId(), summoner.getPuuid(), queueTypeForDbQuery);
-                }
+                lpChanges.putAll(attributeLpChanges(summoner.getPuuid(), queueType, matches));
             } catch (Exception e) {
-                logger.error("Error calculating LP change for match {} PUUID {}: {}", match.getMetadata().getMatchId(), summoner.getPuuid(), e.getMessage(), e);
+                logger.error("Error calculating LP changes for PUUID {} (queue {}): {}", summoner.getPuuid(), queueType, e.getMessage(), e);
+            }
+        });
+
+        List<MatchSummary> annotated = new ArrayList<>(matchHistory.size());
+        for (MatchSummary match : matchHistory) {
+            annotated.add(match.withLpChange(lpChanges.get(match.getMatchId())));
+        }
+        return annotated;
+    }
+
+    /**
+     * Loads the LP timeline spanning all given matches with one query and attributes deltas in a single
+     * sweep over matches ordered by end time.
+     */
+    private Map<String, Integer> attributeLpChanges(String puuid, String queueType, List<MatchSummary> matches) {
+        matches.sort(Comparator.comparingLong(MatchSummary::getGameEndTimestamp));
+        Instant from = Instant.ofEpochMilli(matches.get(0).getGameEndTimestamp());
+        Instant to = Instant.ofEpochMilli(matches.get(matches.size() - 1).getGameEndTimestamp());
+
+        List<PlayerLpRecord> timeline = new ArrayList<>(playerLpRecordRepository.findTimelineBracketing(puuid, queueType, from, to));
+        // The snapshot taken by this very search may still be waiting in the write-behind queue
+        timeline.addAll(playerLpRecordWriter.pending(puuid, queueType));
+        timeline.sort(Comparator.comparing(PlayerLpRecord::getTimestamp));
+
+        return applyLpChanges(puuid, queueType, matches, timeline);
+    }
+
+    /**
+     * Computes the LP change of every match from the snapshots bracketing its end time, keyed by match ID. Matches
+     * without bracketing snapshots or with a tier/rank change in between are left out. Both lists must be sorted
+     * ascending, matches by end time and the timeline by timestamp.
+     */
+    static Map<String, Integer> applyLpChanges(String puuid, String queueType, List<MatchSummary> matches, List<PlayerLpRecord> timeline) {
+        Map<String, Integer> lpChanges = new HashMap<>();
+        int next = 0;
+        for (MatchSummary match : matches) {
+            Instant matchEndTime = Instant.ofEpochMilli(match.getGameEndTimestamp());
+            while (next < timeline.size() && timeline.get(next).getTimestamp().isBefore(matchEndTime)) {
+                next++;
+            }
+            PlayerLpRecord recordBefore = next > 0 ? timeline.get(next - 1) : null;
+            // A point whose unchanged run reaches past the match end was also the first snapshot after it
+            PlayerLpRecord recordAfter = recordBefore != null && !recordBefore.lastObservedAt().isBefore(matchEndTime)
+                    ? recordBefore
+                    : next < timeline.size() ? timeline.get(next) : null;
+
+            if (recordBefore == null || recordAfter == null) {
+                logger.debug("LP records before or after match {} not found for PUUID {} and queue {}. Cannot calculate LP change.",
+                        match.getMatchId(), puuid, queueType);
+                continue;
+            }
+
+            if (!Objects.equals(recordBefore.getTier(), recordAfter.getTier()) || !Objects.equals(recordBefore.getRank(), recordAfter.getRank())) {
+                logger.warn("Tier/Rank changed for match {}. PUUID: {}. Before: {} {} {} LP, After: {} {} {} LP. LP Change calculation might be inaccurate or represent promotion/demotion.",
+                        match.getMatchId(), puuid,
+                        recordBefore.getTier(), recordBefore.getRank(), recordBefore.getLeaguePoints(),
+                        recordAfter.getTier(), recordAfter.getRank(), recordAfter.getLeaguePoints());
+            } else {
+                lpChanges.put(match.getMatchId(), recordAfter.getLeaguePoints() - recordBefore.getLeaguePoints());
             }
         }
+        return lpChanges;
     }
 }
@@ -0,0 +1,294 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.model.LpResolution;
+import com.zerox80.riotapi.model.PlayerLpRecord;
+import com.zerox80.riotapi.repository.PlayerLpRecordRepository;
+import com.zerox80.riotapi.util.ListUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for LP snapshots.
+ * <p>
+ * Snapshots are queued by the request path and inserted by a single writer thread in batches of
+ * {@code batch-size} records, which together with {@code hibernate.jdbc.batch_size} and the pooled
+ * id sequence turns a search into one JDBC batch instead of a round trip per queue. When the queue is
+ * full the caller waits up to {@code offer-timeout-ms} and then writes its own records, so records are
+ * never dropped. Everything still queued is flushed when the application shuts down.
+ * <p>
+ * Only changes are stored: a snapshot with the same LP, tier and rank as the player's latest point
+ * just moves that point's {@code lastSeenAt} forward. Duplicate runs written before this existed are
+ * compacted once the application is ready.
+ */
+@Component
+public class PlayerLpRecordWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayerLpRecordWriter.class);
+
+    private final PlayerLpRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean compactOnStartup;
+    private final BlockingQueue<PlayerLpRecord> queue;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final long flushIntervalMillis;
+    private Thread writerThread;
+    private volatile List<PlayerLpRecord> inFlight = List.of();
+    private volatile boolean running = true;
+
+    public PlayerLpRecordWriter(PlayerLpRecordRepository repository,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${riot.lp-records.write-behind.capacity:10000}") int capacity,
+                                @Value("${riot.lp-records.write-behind.batch-size:50}") int batchSize,
+                                @Value("${riot.lp-records.write-behind.offer-timeout-ms:500}") long offerTimeoutMillis,
+                                @Value("${riot.lp-records.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                                @Value("${riot.lp-records.compact-on-startup:true}") boolean compactOnStartup) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.compactOnStartup = compactOnStartup;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        Gauge.builder("riot.lp.writer.queue.depth", queue, BlockingQueue::size)
+                .description("LP snapshots accepted by the write-behind queue and not yet taken by the writer thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writerThread = Thread.ofPlatform()
+                .name("lp-record-writer")
+                .daemon(true)
+                .start(this::run);
+    }
+
+    /**
+     * Queues records for insertion. Blocks for at most {@code offer-timeout-ms} per record while the
+     * queue is full, after which the remaining records are written on the calling thread.
+     */
+    public void enqueue(List<PlayerLpRecord> records) {
+        for (int i = 0; i < records.size(); i++) {
+            boolean queued;
+            try {
+                queued = running && queue.offer(records.get(i), offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                List<PlayerLpRecord> remaining = records.subList(i, records.size());
+                logger.warn("LP record queue is full, writing {} record(s) on the calling thread", remaining.size());
+                persist(remaining);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records for the given player and queue that are accepted but not yet committed.
+     */
+    public List<PlayerLpRecord> pending(String puuid, String queueType) {
+        List<PlayerLpRecord> matches = new ArrayList<>();
+        for (PlayerLpRecord record : inFlight) {
+            if (puuid.equals(record.getPuuid()) && queueType.equals(record.getQueueType())) {
+                matches.add(record);
+            }
+        }
+        for (PlayerLpRecord record : queue) {
+            if (puuid.equals(record.getPuuid()) && queueType.equals(record.getQueueType())) {
+                matches.add(record);
+            }
+        }
+        return matches;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                PlayerLpRecord first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<PlayerLpRecord> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<PlayerLpRecord> batch) {
+        inFlight = batch;
+        try {
+            persist(batch);
+            logger.debug("Persisted batch of {} LP snapshot(s)", batch.size());
+        } catch (Exception e) {
+            logger.error("Persisting batch of {} LP snapshot(s) failed: {}", batch.size(), e.getMessage(), e);
+        } finally {
+            inFlight = List.of();
+        }
+    }
+
+    /**
+     * Stores snapshots right away, inserting a point only where the standing changed.
+     */
+    public synchronized void persist(List<PlayerLpRecord> snapshots) {
+        Map<String, List<PlayerLpRecord>> byPlayerQueue = new LinkedHashMap<>();
+        for (PlayerLpRecord snapshot : snapshots) {
+            byPlayerQueue.computeIfAbsent(snapshot.getPuuid() + " " + snapshot.getQueueType(), k -> new ArrayList<>())
+                    .add(snapshot);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<PlayerLpRecord> inserts = new ArrayList<>();
+            for (List<PlayerLpRecord> group : byPlayerQueue.values()) {
+                group.sort(Comparator.comparing(PlayerLpRecord::getTimestamp));
+                PlayerLpRecord first = group.get(0);
+                // Loaded inside the transaction, so moving lastSeenAt is flushed as an update on commit
+                PlayerLpRecord latest = repository
+                        .findFirstByPuuidAndQueueTypeOrderByTimestampDesc(first.getPuuid(), first.getQueueType())
+                        .orElse(null);
+                for (PlayerLpRecord snapshot : group) {
+                    if (snapshot.hasSameStanding(latest) && !snapshot.getTimestamp().isBefore(latest.getTimestamp())) {
+                        if (snapshot.getTimestamp().isAfter(latest.lastObservedAt())) {
+                            latest.setLastSeenAt(snapshot.getTimestamp());
+                        }
+                        continue;
+                    }
+                    snapshot.setLastSeenAt(snapshot.getTimestamp());
+                    inserts.add(snapshot);
+                    if (latest == null || !snapshot.getTimestamp().isBefore(latest.getTimestamp())) {
+                        latest = snapshot;
+                    }
+                }
+            }
+            repository.saveAll(inserts);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void compactOnStartup() {
+        if (compactOnStartup) {
+            Thread.ofVirtual().name("lp-record-compaction").start(this::compactExistingRuns);
+        }
+    }
+
+    /**
+     * Folds consecutive points with the same standing into the first point of each run, extending its
+     * {@code lastSeenAt}. The before/after lookups used for LP attribution give the same values afterwards.
+     *
+     * @return the number of rows removed.
+     */
+    public int compactExistingRuns() {
+        int removed = 0;
+        for (Object[] key : repository.findDistinctPuuidAndQueueType()) {
+            try {
+                removed += compact((String) key[0], (String) key[1]);
+            } catch (Exception e) {
+                logger.warn("Compacting LP records for {} ({}) failed: {}", key[0], key[1], e.getMessage());
+            }
+        }
+        if (removed > 0) {
+            logger.info("Compacted {} duplicate LP record(s)", removed);
+        }
+        return removed;
+    }
+
+    private synchronized int compact(String puuid, String queueType) {
+        Integer removed = transactionTemplate.execute(status -> {
+            List<PlayerLpRecord> records = new ArrayList<>(repository.findByPuuidAndQueueTypeOrderByTimestampDesc(puuid, queueType));
+            Collections.reverse(records);
+            List<PlayerLpRecord> duplicates = new ArrayList<>();
+            PlayerLpRecord current = null;
+            for (PlayerLpRecord record : records) {
+                if (record.hasSameStanding(current)) {
+                    if (record.lastObservedAt().isAfter(current.lastObservedAt())) {
+                        current.setLastSeenAt(record.lastObservedAt());
+                    }
+                    duplicates.add(record);
+                } else {
+                    current = record;
+                }
+            }
+            repository.deleteAllInBatch(duplicates);
+            return duplicates.size();
+        });
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Keeps the last {@code source} point of every bucket before {@code cutoff} for one player and queue as a
+     * {@code target} point and deletes the others. Runs under the same lock as {@link #persist} and the
+     * compaction, so it never deletes a row a concurrent batch is extending.
+     *
+     * @return the number of rows removed.
+     */
+    public synchronized int rollUp(String puuid, String queueType, LpResolution source, LpResolution target,
+                                   Instant cutoff, ChronoUnit bucketUnit) {
+        Integer removed = transactionTemplate.execute(status -> {
+            List<PlayerLpRecord> records = repository
+                    .findByPuuidAndQueueTypeAndResolutionAndTimestampBeforeOrderByTimestampAsc(puuid, queueType, source, cutoff);
+            List<PlayerLpRecord> superseded = new ArrayList<>();
+            List<Long> kept = new ArrayList<>();
+            for (int i = 0; i < records.size(); i++) {
+                PlayerLpRecord record = records.get(i);
+                boolean lastInBucket = i == records.size() - 1
+                        || !records.get(i + 1).getTimestamp().truncatedTo(bucketUnit)
+                        .equals(record.getTimestamp().truncatedTo(bucketUnit));
+                if (lastInBucket) {
+                    kept.add(record.getId());
+                } else {
+                    superseded.add(record);
+                }
+            }
+            repository.deleteAllInBatch(superseded);
+            for (List<Long> ids : ListUtils.partition(kept, 500)) {
+                repository.updateResolution(ids, target);
+            }
+            return superseded.size();
+        });
+        return removed != null ? removed : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The writer notices the flag within one flush interval; interrupting it could abort a JDBC batch
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<PlayerLpRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+}
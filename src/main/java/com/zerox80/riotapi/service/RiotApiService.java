@@ -6,13 +6,14 @@ import com.zerox80.riotapi.service.PlayerLpRecordService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Collections;
@@ -20,11 +21,16 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.LinkedHashMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
+import java.util.Objects;
 import java.util.Optional;
-import com.zerox80.riotapi.util.ListUtils;
+import com.zerox80.riotapi.util.AsyncUtils;
 
 @Service
 public class RiotApiService {
@@ -32,12 +38,24 @@ public class RiotApiService {
     private static final Logger logger = LoggerFactory.getLogger(RiotApiService.class);
     private final RiotApiClient riotApiClient;
     private final PlayerLpRecordService playerLpRecordService;
+    private final SummonerSuggestionIndex summonerSuggestionIndex;
+    private final int matchFetchParallelism;
+    private final Executor profileExecutor;
+
+    // Stands in for "no deadline": the timeouts derived from it never fire
+    private static final Duration NO_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE);
 
     @Autowired
     public RiotApiService(RiotApiClient riotApiClient,
-                          PlayerLpRecordService playerLpRecordService) {
+                          PlayerLpRecordService playerLpRecordService,
+                          SummonerSuggestionIndex summonerSuggestionIndex,
+                          @Value("${riot.api.match-history.parallelism:8}") int matchFetchParallelism,
+                          @Qualifier("applicationTaskExecutor") Executor profileExecutor) {
         this.riotApiClient = riotApiClient;
         this.playerLpRecordService = playerLpRecordService;
+        this.summonerSuggestionIndex = summonerSuggestionIndex;
+        this.matchFetchParallelism = Math.max(1, matchFetchParallelism);
+        this.profileExecutor = profileExecutor;
     }
 
     public CompletableFuture<Summoner> getSummonerByRiotId(String gameName, String tagLine) {
@@ -60,6 +78,9 @@ public class RiotApiService {
                                             summoner.setName(gameName);
                                             logger.warn("Warning: gameName is missing from AccountDto for PUUID: {}. Using provided gameName for Summoner object.", account.getPuuid());
                                         }
+                                        String resolvedTagLine = StringUtils.hasText(account.getTagLine()) ? account.getTagLine() : tagLine;
+                                        summonerSuggestionIndex.record(summoner.getName(), resolvedTagLine,
+                                                summoner.getProfileIconId(), summoner.getSummonerLevel());
                                     }
                                     return summoner;
                                 });
@@ -84,7 +105,7 @@ public class RiotApiService {
                 .thenApply(leagueEntries -> {
                     if (leagueEntries != null && !leagueEntries.isEmpty()) {
                         Instant now = Instant.now();
-                        playerLpRecordService.savePlayerLpRecords(puuid, leagueEntries, now);
+                        playerLpRecordService.recordPlayerLpSnapshots(puuid, leagueEntries, now);
                     }
                     return leagueEntries;
                 })
@@ -95,72 +116,41 @@ public class RiotApiService {
                 });
     }
 
-    @Cacheable(value = "matchHistory", key = "#puuid + '-' + #numberOfMatches")
-    public CompletableFuture<List<MatchV5Dto>> getMatchHistory(String puuid, int numberOfMatches) {
-        if (!StringUtils.hasText(puuid)) {
-            logger.error("Error: PUUID cannot be empty when fetching match history.");
-            return CompletableFuture.completedFuture(Collections.emptyList());
-        }
-        if (numberOfMatches <= 0) {
-            logger.error("Error: Number of matches to fetch must be positive.");
-            return CompletableFuture.completedFuture(Collections.emptyList());
-        }
-
+    /**
+     * Resolves the match IDs and starts the bounded match details pipeline. The returned futures are in
+     * history order and complete with null for matches that could not be fetched.
+     */
+    private CompletableFuture<List<CompletableFuture<MatchSummary>>> startMatchDetailFetches(String puuid, int numberOfMatches) {
         logger.info("Fetching last {} match IDs for PUUID: {}...", numberOfMatches, puuid);
         return riotApiClient.getMatchIdsByPuuid(puuid, numberOfMatches)
-                .thenCompose(matchIds -> {
-                    if (matchIds.isEmpty()) {
+                .thenApply(matchIds -> {
+                    if (matchIds == null || matchIds.isEmpty()) {
                         logger.info("No match IDs found for PUUID: {}", puuid);
-                        return CompletableFuture.completedFuture(Collections.<MatchV5Dto>emptyList());
+                        return Collections.<CompletableFuture<MatchSummary>>emptyList();
                     }
-                    logger.info("Fetching details for {} matches in batches...", matchIds.size());
-
-                    List<List<String>> batches = ListUtils.partition(matchIds, 5);
-
-                    return batches.stream()
-                        .map(this::fetchMatchBatch)
-                        .reduce(CompletableFuture.completedFuture(new ArrayList<MatchV5Dto>()),
-                            (accFuture, batchFuture) -> accFuture.thenCompose(list ->
-                                batchFuture.thenApply(batchResult -> {
-                                    if (batchResult != null) {
-                                        list.addAll(batchResult.stream().filter(java.util.Objects::nonNull).collect(Collectors.toList()));
-                                    }
-                                    return list;
-                                })
-                            )
-                        );
-                }).exceptionally(ex -> {
-                    logger.error("Error fetching match history for puuid {}: {}", puuid, ex.getMessage(), ex);
-                    return Collections.emptyList();
+                    logger.info("Fetching details for {} matches with up to {} requests in flight...", matchIds.size(), matchFetchParallelism);
+                    return AsyncUtils.mapBounded(matchIds, matchFetchParallelism, this::fetchMatchDetailsOrNull);
                 });
     }
 
-    private CompletableFuture<List<MatchV5Dto>> fetchMatchBatch(List<String> matchIdBatch) {
-        List<CompletableFuture<MatchV5Dto>> matchDetailFutures = matchIdBatch.stream()
-            .map(matchId -> riotApiClient.getMatchDetails(matchId)
+    private CompletableFuture<MatchSummary> fetchMatchDetailsOrNull(String matchId) {
+        return riotApiClient.getMatchDetails(matchId)
                 .exceptionally(ex -> {
                     logger.error("Error fetching details for match ID {}: {}", matchId, ex.getMessage());
                     return null;
-                }))
-            .collect(Collectors.toList());
-
-        return CompletableFuture.allOf(matchDetailFutures.toArray(new CompletableFuture[0]))
-            .thenApply(v -> matchDetailFutures.stream()
-                .map(CompletableFuture::join)
-                .filter(java.util.Objects::nonNull)
-                .collect(Collectors.toList()));
+                });
     }
 
-    public Map<String, Long> getChampionPlayCounts(List<MatchV5Dto> matches, String searchedPuuid) {
+    public Map<String, Long> getChampionPlayCounts(List<MatchSummary> matches, String searchedPuuid) {
         if (matches == null || matches.isEmpty() || !StringUtils.hasText(searchedPuuid)) {
             return Collections.emptyMap();
         }
 
         return matches.stream()
-                .filter(match -> match != null && match.getInfo() != null && match.getInfo().getParticipants() != null)
-                .flatMap(match -> match.getInfo().getParticipants().stream())
-                .filter(participant -> participant != null && searchedPuuid.equals(participant.getPuuid()) && StringUtils.hasText(participant.getChampionName()))
-                .collect(Collectors.groupingBy(ParticipantDto::getChampionName, Collectors.counting()))
+                .filter(Objects::nonNull)
+                .map(match -> match.participant(searchedPuuid))
+                .filter(participant -> participant != null && StringUtils.hasText(participant.getChampionName()))
+                .collect(Collectors.groupingBy(ParticipantSummary::getChampionName, Collectors.counting()))
                 .entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
@@ -178,60 +168,132 @@ public class RiotApiService {
                     .filter(entry -> entry.getKey().startsWith(lowerPartialName));
         }
 
-        return stream
+        // The user's own history comes first, the rest is filled from everything other users looked up
+        Map<String, SummonerSuggestionDTO> suggestions = new LinkedHashMap<>();
+        Stream.concat(stream.map(Map.Entry::getValue),
+                        summonerSuggestionIndex.suggest(partialName, SummonerSuggestionIndex.TOP_K).stream())
+                .forEach(suggestion -> suggestions.putIfAbsent(suggestion.getRiotId().toLowerCase(), suggestion));
+        return suggestions.values().stream()
                 .limit(10)
-                .map(Map.Entry::getValue)
-                .distinct()
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Builds the complete profile, waiting for every league entry and match.
+     */
     public CompletableFuture<SummonerProfileData> getSummonerProfileDataAsync(String gameName, String tagLine) {
+        return getSummonerProfileDataAsync(gameName, tagLine, NO_TIMEOUT);
+    }
+
+    /**
+     * Builds the profile within {@code timeout}. League entries and matches that have not arrived by then are left
+     * out and the result is marked as partial.
+     */
+    public CompletableFuture<SummonerProfileData> getSummonerProfileDataAsync(String gameName, String tagLine, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
         return getSummonerByRiotId(gameName, tagLine)
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
                 .thenCompose(summoner -> {
                     if (summoner == null || !StringUtils.hasText(summoner.getPuuid())) {
                         logger.warn("Summoner not found or PUUID is missing for {}#{}", gameName, tagLine);
                         return CompletableFuture.completedFuture(new SummonerProfileData("Summoner not found or PUUID missing."));
                     }
 
-                    String displayRiotId = summoner.getName() + "#" + tagLine;
                     String iconUrl = riotApiClient.getProfileIconUrl(summoner.getProfileIconId());
-                    SummonerSuggestionDTO suggestionDTO = new SummonerSuggestionDTO(displayRiotId, summoner.getProfileIconId(), summoner.getSummonerLevel());
-
-                    // Fetch league entries (by PUUID) and match history concurrently
-                    CompletableFuture<List<LeagueEntryDTO>> leagueEntriesFuture =
-                            riotApiClient.getLeagueEntriesByPuuid(summoner.getPuuid())
-                                    .thenApply(leagueEntries -> {
-                                        if (leagueEntries != null && !leagueEntries.isEmpty()) {
-                                            Instant now = Instant.now();
-                                            playerLpRecordService.savePlayerLpRecords(summoner.getPuuid(), leagueEntries, now);
-                                        }
-                                        return leagueEntries;
-                                    })
-                                    .exceptionally(ex -> {
-                                        logger.error("Error fetching league entries for puuid {}: {}",
-                                                summoner.getPuuid(), ex.getMessage(), ex);
-                                        return Collections.emptyList();
-                                    });
-                    CompletableFuture<List<MatchV5Dto>> matchHistoryFuture = getMatchHistory(summoner.getPuuid(), 5);
-
-                    return CompletableFuture.allOf(leagueEntriesFuture, matchHistoryFuture)
-                            .thenApply(v -> {
-                                List<LeagueEntryDTO> leagueEntries = leagueEntriesFuture.join();
-                                List<MatchV5Dto> matchHistory = matchHistoryFuture.join();
-
-                                playerLpRecordService.calculateAndSetLpChangesForMatches(summoner, matchHistory);
+                    SummonerSuggestionDTO suggestionDTO = new SummonerSuggestionDTO(summoner.getName() + "#" + tagLine, summoner.getProfileIconId(), summoner.getSummonerLevel());
 
+                    CompletableFuture<List<LeagueEntryDTO>> leagueEntriesFuture = getLeagueEntries(summoner.getPuuid());
+                    CompletableFuture<List<CompletableFuture<MatchSummary>>> matchDetailFuturesFuture = startMatchDetailFetches(summoner.getPuuid(), 5);
+                    CompletableFuture<Void> matchesDone = matchDetailFuturesFuture
+                            .thenCompose(matchDetailFutures -> CompletableFuture.allOf(matchDetailFutures.toArray(new CompletableFuture[0])));
+
+                    return CompletableFuture.allOf(leagueEntriesFuture, matchesDone)
+                            .handle((v, ex) -> (Void) null)
+                            .completeOnTimeout(null, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                            // A fired deadline completes on the JVM-wide delay scheduler thread; the LP lookup
+                            // below queries the database and must not hold up every other timeout and retry
+                            .thenApplyAsync(v -> {
+                                boolean partial = !leagueEntriesFuture.isDone() || !matchesDone.isDone();
+                                List<LeagueEntryDTO> leagueEntries = leagueEntriesFuture.getNow(Collections.emptyList());
+                                List<MatchSummary> matchHistory = matchDetailFuturesFuture.getNow(Collections.emptyList()).stream()
+                                        .filter(future -> future.isDone() && !future.isCompletedExceptionally())
+                                        .map(CompletableFuture::join)
+                                        .filter(Objects::nonNull)
+                                        .collect(Collectors.toList());
+                                if (partial) {
+                                    logger.warn("Profile for {}#{} hit the {} ms deadline, returning {} of the matches",
+                                            gameName, tagLine, timeout.toMillis(), matchHistory.size());
+                                }
+
+                                matchHistory = playerLpRecordService.withLpChanges(summoner, matchHistory);
                                 Map<String, Long> championPlayCounts = getChampionPlayCounts(matchHistory, summoner.getPuuid());
 
-                                return new SummonerProfileData(summoner, leagueEntries, matchHistory, suggestionDTO, championPlayCounts, iconUrl);
-                            });
+                                return new SummonerProfileData(summoner, leagueEntries, matchHistory, suggestionDTO,
+                                        championPlayCounts, iconUrl, null, partial);
+                            }, profileExecutor);
                 })
                 .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof TimeoutException) {
+                        logger.warn("Looking up {}#{} did not finish within {} ms", gameName, tagLine, timeout.toMillis());
+                        return new SummonerProfileData("The Riot API did not answer in time. Please try again.");
+                    }
                     logger.error("Error building summoner profile data for {}#{}: {}", gameName, tagLine, ex.getMessage(), ex);
                     return new SummonerProfileData("An error occurred while fetching summoner profile data: " + ex.getMessage());
                 });
     }
 
+    /**
+     * Builds the same profile as {@link #getSummonerProfileDataAsync(String, String)}, but hands every piece to
+     * the listener as soon as its future completes instead of waiting for the slowest match.
+     *
+     * @return a future that completes after the listener received its final callback.
+     */
+    public CompletableFuture<Void> streamSummonerProfile(String gameName, String tagLine, SummonerProfileListener listener) {
+        return getSummonerByRiotId(gameName, tagLine)
+                .thenCompose(summoner -> {
+                    if (summoner == null || !StringUtils.hasText(summoner.getPuuid())) {
+                        logger.warn("Summoner not found or PUUID is missing for {}#{}", gameName, tagLine);
+                        listener.onError("Summoner not found or PUUID missing.");
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    listener.onSummoner(summoner, riotApiClient.getProfileIconUrl(summoner.getProfileIconId()));
+
+                    CompletableFuture<Void> leagueEntriesSent = getLeagueEntries(summoner.getPuuid())
+                            .thenAccept(listener::onLeagueEntries);
+
+                    CompletableFuture<Void> matchHistorySent = startMatchDetailFetches(summoner.getPuuid(), 5)
+                            .thenCompose(matchDetailFutures -> {
+                                List<CompletableFuture<Void>> matchesSent = new ArrayList<>(matchDetailFutures.size());
+                                for (int i = 0; i < matchDetailFutures.size(); i++) {
+                                    int index = i;
+                                    matchesSent.add(matchDetailFutures.get(i).thenAccept(match -> {
+                                        if (match != null) {
+                                            listener.onMatch(index, match);
+                                        }
+                                    }));
+                                }
+                                // The complete event must not overtake a match event that is still being sent
+                                return CompletableFuture.allOf(matchesSent.toArray(new CompletableFuture[0]))
+                                        .thenApply(v -> matchDetailFutures.stream()
+                                                .map(CompletableFuture::join)
+                                                .filter(Objects::nonNull)
+                                                .collect(Collectors.toList()));
+                            })
+                            .thenAccept(fetched -> {
+                                List<MatchSummary> matchHistory = playerLpRecordService.withLpChanges(summoner, fetched);
+                                listener.onMatchHistoryComplete(matchHistory, getChampionPlayCounts(matchHistory, summoner.getPuuid()));
+                            });
+
+                    return CompletableFuture.allOf(leagueEntriesSent, matchHistorySent);
+                })
+                .exceptionally(ex -> {
+                    logger.error("Error streaming summoner profile data for {}#{}: {}", gameName, tagLine, ex.getMessage(), ex);
+                    listener.onError("An error occurred while fetching summoner profile data: " + ex.getMessage());
+                    return null;
+                });
+    }
+
     /**
      * Fetch the currently authenticated user's summoner profile using an RSO Bearer token.
      * This uses the endpoint /lol/summoner/v4/summoners/me and does NOT require the X-Riot-Token.
@@ -0,0 +1,31 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.Summoner;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives the parts of a summoner profile as they become available.
+ * Callbacks may arrive concurrently from different threads.
+ */
+public interface SummonerProfileListener {
+
+    void onSummoner(Summoner summoner, String profileIconUrl);
+
+    void onLeagueEntries(List<LeagueEntryDTO> leagueEntries);
+
+    /**
+     * Called once per successfully fetched match; {@code index} is its position in the match history.
+     */
+    void onMatch(int index, MatchSummary match);
+
+    /**
+     * Called after all matches were fetched, with LP changes applied and the champion aggregate computed.
+     */
+    void onMatchHistoryComplete(List<MatchSummary> matchHistory, Map<String, Long> championPlayCounts);
+
+    void onError(String message);
+}
@@ -0,0 +1,266 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.model.KnownPlayer;
+import com.zerox80.riotapi.model.SummonerSuggestionDTO;
+import com.zerox80.riotapi.repository.KnownPlayerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Global prefix index over every Riot ID resolved by a search, ranked by how often it was looked up.
+ * <p>
+ * Keys are normalized (lower case, diacritics stripped) into a trie whose nodes each keep their
+ * {@value #TOP_K} most popular entries, so a suggestion query only walks the typed prefix. The index
+ * holds at most {@code max-entries} players and evicts the least frequently looked up one when full.
+ * Lookup counts are written to {@code known_players} periodically and the index is rebuilt from the most
+ * popular rows at startup.
+ */
+@Component
+public class SummonerSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummonerSuggestionIndex.class);
+
+    static final int TOP_K = 10;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<Entry> LEAST_FREQUENT_FIRST = Comparator
+            .comparingLong((Entry entry) -> entry.count)
+            .thenComparingLong(entry -> entry.lastUsed)
+            .thenComparing(entry -> entry.key);
+    private static final Comparator<Entry> MOST_POPULAR_FIRST = LEAST_FREQUENT_FIRST.reversed();
+
+    private final KnownPlayerRepository knownPlayerRepository;
+    private final int maxEntries;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byFrequency = new TreeSet<>(LEAST_FREQUENT_FIRST);
+    private final Map<String, PendingLookup> pendingLookups = new ConcurrentHashMap<>();
+    private long clock;
+
+    public SummonerSuggestionIndex(KnownPlayerRepository knownPlayerRepository,
+                                   @Value("${riot.suggestions.max-entries:100000}") int maxEntries) {
+        this.knownPlayerRepository = knownPlayerRepository;
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Counts one lookup of a resolved Riot ID.
+     */
+    public void record(String gameName, String tagLine, int profileIconId, long summonerLevel) {
+        String key = normalize(gameName) + "#" + normalize(tagLine);
+        SummonerSuggestionDTO suggestion = new SummonerSuggestionDTO(gameName + "#" + tagLine, profileIconId, summonerLevel);
+        put(key, suggestion, 1);
+        pendingLookups.merge(key, new PendingLookup(suggestion, 1),
+                (existing, added) -> new PendingLookup(added.suggestion(), existing.count() + added.count()));
+    }
+
+    /**
+     * Returns up to {@code limit} of the most looked up players whose Riot ID starts with {@code prefix}.
+     */
+    public List<SummonerSuggestionDTO> suggest(String prefix, int limit) {
+        String key = prefix != null ? normalize(prefix) : "";
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            List<SummonerSuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, node.top.size()));
+            for (int i = 0; i < node.top.size() && i < limit; i++) {
+                suggestions.add(node.top.get(i).suggestion);
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<KnownPlayer> players = knownPlayerRepository.findAllByOrderByLookupCountDesc(PageRequest.of(0, maxEntries));
+            for (KnownPlayer player : players) {
+                put(player.getSearchKey(),
+                        new SummonerSuggestionDTO(player.getRiotId(), player.getProfileIconId(), player.getSummonerLevel()),
+                        player.getLookupCount());
+            }
+            logger.info("Summoner suggestion index rebuilt with {} player(s)", players.size());
+        } catch (Exception e) {
+            logger.warn("Rebuilding the summoner suggestion index failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the lookups counted since the last flush to {@code known_players}.
+     */
+    @Scheduled(fixedDelayString = "${riot.suggestions.flush-interval-ms:30000}")
+    @PreDestroy
+    public void flush() {
+        if (pendingLookups.isEmpty()) {
+            return;
+        }
+        List<KnownPlayer> updated = new ArrayList<>();
+        Instant now = Instant.now();
+        for (String key : new ArrayList<>(pendingLookups.keySet())) {
+            PendingLookup pending = pendingLookups.remove(key);
+            if (pending == null) {
+                continue;
+            }
+            KnownPlayer player = knownPlayerRepository.findById(key).orElseGet(() -> new KnownPlayer(key));
+            player.setRiotId(pending.suggestion().getRiotId());
+            player.setProfileIconId(pending.suggestion().getProfileIconId());
+            player.setSummonerLevel(pending.suggestion().getSummonerLevel());
+            player.setLookupCount(player.getLookupCount() + pending.count());
+            player.setLastSeenAt(now);
+            updated.add(player);
+        }
+        try {
+            knownPlayerRepository.saveAll(updated);
+        } catch (Exception e) {
+            logger.warn("Persisting {} known player(s) failed: {}", updated.size(), e.getMessage());
+        }
+    }
+
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private void put(String key, SummonerSuggestionDTO suggestion, long increment) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                if (entries.size() >= maxEntries) {
+                    evict(byFrequency.first());
+                }
+                entry = new Entry(key);
+                entries.put(key, entry);
+                nodeFor(key).terminal = entry;
+            } else {
+                byFrequency.remove(entry);
+            }
+            entry.count += increment;
+            entry.lastUsed = ++clock;
+            entry.suggestion = suggestion;
+            byFrequency.add(entry);
+
+            // The entry only gained popularity, so it can only move up in every ranking along its path
+            Node node = root;
+            offer(node, entry);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.get(key.charAt(i));
+                offer(node, entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void evict(Entry entry) {
+        byFrequency.remove(entry);
+        entries.remove(entry.key);
+
+        List<Node> path = new ArrayList<>(entry.key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < entry.key.length(); i++) {
+            node = node.children.get(entry.key.charAt(i));
+            path.add(node);
+        }
+        node.terminal = null;
+
+        // Bottom-up, so every node recomputes its ranking from children that are already up to date
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node current = path.get(depth);
+            if (depth > 0 && current.terminal == null && current.children.isEmpty()) {
+                path.get(depth - 1).children.remove(entry.key.charAt(depth - 1));
+                continue;
+            }
+            if (current.top.remove(entry)) {
+                List<Entry> candidates = new ArrayList<>();
+                if (current.terminal != null) {
+                    candidates.add(current.terminal);
+                }
+                for (Node child : current.children.values()) {
+                    candidates.addAll(child.top);
+                }
+                candidates.sort(MOST_POPULAR_FIRST);
+                current.top = new ArrayList<>(candidates.subList(0, Math.min(TOP_K, candidates.size())));
+            }
+        }
+    }
+
+    private Node nodeFor(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+        }
+        return node;
+    }
+
+    private static void offer(Node node, Entry entry) {
+        node.top.remove(entry);
+        int index = Collections.binarySearch(node.top, entry, MOST_POPULAR_FIRST);
+        int insertAt = index >= 0 ? index : -index - 1;
+        if (insertAt < TOP_K) {
+            node.top.add(insertAt, entry);
+            if (node.top.size() > TOP_K) {
+                node.top.remove(node.top.size() - 1);
+            }
+        }
+    }
+
+    private static final class Node {
+        final Map<Character, Node> children = new HashMap<>(4);
+        List<Entry> top = new ArrayList<>(2);
+        Entry terminal;
+    }
+
+    private static final class Entry {
+        final String key;
+        long count;
+        long lastUsed;
+        SummonerSuggestionDTO suggestion;
+
+        Entry(String key) {
+            this.key = key;
+        }
+    }
+
+    private record PendingLookup(SummonerSuggestionDTO suggestion, long count) {
+    }
+}
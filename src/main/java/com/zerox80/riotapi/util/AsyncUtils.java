@@ -0,0 +1,72 @@
+package com.zerox80.riotapi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public final class AsyncUtils {
+
+    private AsyncUtils() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Applies an asynchronous task to every element while keeping at most {@code parallelism} tasks in flight.
+     * A new task is started as soon as any running one completes, so there are no batch boundaries.
+     *
+     * @param inputs      The elements to process.
+     * @param parallelism The maximum number of tasks running at the same time.
+     * @param task        The asynchronous task to apply to each element.
+     * @param <T>         The type of the input elements.
+     * @param <R>         The result type of the task.
+     * @return One future per input element, in input order. A failing task only fails its own future.
+     * @throws IllegalArgumentException if the inputs are null or the parallelism is not positive.
+     */
+    public static <T, R> List<CompletableFuture<R>> mapBounded(List<T> inputs, int parallelism,
+                                                               Function<T, CompletableFuture<R>> task) {
+        if (inputs == null) {
+            throw new IllegalArgumentException("Inputs cannot be null.");
+        }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+
+        List<CompletableFuture<R>> results = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+
+        AtomicInteger nextIndex = new AtomicInteger();
+        int workers = Math.min(parallelism, inputs.size());
+        for (int i = 0; i < workers; i++) {
+            launchNext(inputs, task, results, nextIndex);
+        }
+        return results;
+    }
+
+    private static <T, R> void launchNext(List<T> inputs, Function<T, CompletableFuture<R>> task,
+                                          List<CompletableFuture<R>> results, AtomicInteger nextIndex) {
+        int index = nextIndex.getAndIncrement();
+        if (index >= inputs.size()) {
+            return;
+        }
+
+        CompletableFuture<R> running;
+        try {
+            running = task.apply(inputs.get(index));
+        } catch (RuntimeException e) {
+            running = CompletableFuture.failedFuture(e);
+        }
+
+        running.whenComplete((value, throwable) -> {
+            if (throwable != null) {
+                results.get(index).completeExceptionally(throwable);
+            } else {
+                results.get(index).complete(value);
+            }
+            launchNext(inputs, task, results, nextIndex);
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.zerox80.riotapi.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+public final class Downsampling {
+
+    private Downsampling() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Reduces a series to at most {@code threshold} points with Largest-Triangle-Three-Buckets, which keeps
+     * the visual shape (peaks and drops) of the curve. The first and last points are always kept.
+     *
+     * @param points    The series, ordered by x.
+     * @param threshold Maximum number of points to return.
+     * @param x         Extracts the x value (e.g. epoch millis).
+     * @param y         Extracts the y value.
+     * @param <T>       The type of the points.
+     * @return The selected points in their original order; the input itself if it already fits.
+     */
+    public static <T> List<T> largestTriangleThreeBuckets(List<T> points, int threshold,
+                                                          ToDoubleFunction<T> x, ToDoubleFunction<T> y) {
+        int size = points.size();
+        if (threshold >= size || size <= 2) {
+            return points;
+        }
+        if (threshold <= 2) {
+            return threshold <= 0 ? List.of() : threshold == 1 ? List.of(points.get(0)) : List.of(points.get(0), points.get(size - 1));
+        }
+
+        List<T> sampled = new ArrayList<>(threshold);
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int selected = 0;
+        sampled.add(points.get(0));
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third corner of the triangle
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x.applyAsDouble(points.get(i));
+                avgY += y.applyAsDouble(points.get(i));
+            }
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double selectedX = x.applyAsDouble(points.get(selected));
+            double selectedY = y.applyAsDouble(points.get(selected));
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((selectedX - avgX) * (y.applyAsDouble(points.get(i)) - selectedY)
+                        - (selectedX - x.applyAsDouble(points.get(i))) * (avgY - selectedY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            sampled.add(points.get(maxIndex));
+            selected = maxIndex;
+        }
+
+        sampled.add(points.get(size - 1));
+        return sampled;
+    }
+}
@@ -30,3 +30,174 @@ if (matchHistoryCollapse) {
         });
     }
 } 
+
+// Progressive search: paint summoner, ranked entries and matches from /api/summoner/stream as they arrive,
+// then load the full server-rendered profile (charts, filters) once the stream is complete.
+document.addEventListener('DOMContentLoaded', function() {
+    const riotIdInput = document.getElementById('riotId');
+    const form = riotIdInput ? riotIdInput.form : null;
+    if (!form || !window.EventSource) {
+        return;
+    }
+
+    function el(tag, className, text) {
+        const node = document.createElement(tag);
+        if (className) node.className = className;
+        if (text != null) node.textContent = text;
+        return node;
+    }
+
+    function card(title, iconClass) {
+        const wrapper = el('div', 'card section-card glass-card shadow-sm mb-4');
+        const header = el('div', 'card-header section-header d-flex align-items-center gap-2');
+        header.appendChild(el('i', iconClass));
+        header.appendChild(document.createTextNode(title));
+        const body = el('div', 'card-body');
+        wrapper.appendChild(header);
+        wrapper.appendChild(body);
+        return { wrapper: wrapper, body: body };
+    }
+
+    form.addEventListener('submit', function(event) {
+        const riotId = riotIdInput.value.trim();
+        if (!riotId) {
+            return;
+        }
+        event.preventDefault();
+
+        const hero = form.closest('section');
+        let preview = document.getElementById('streamPreview');
+        if (preview) preview.remove();
+        preview = el('section', 'row g-4');
+        preview.id = 'streamPreview';
+        preview.setAttribute('aria-live', 'polite');
+        hero.after(preview);
+        document.querySelectorAll('main > .row.g-4:not(#streamPreview)').forEach(function(old) {
+            old.style.display = 'none';
+        });
+
+        const sidebar = el('div', 'col-12 col-lg-4');
+        const content = el('div', 'col-12 col-lg-8');
+        preview.appendChild(sidebar);
+        preview.appendChild(content);
+        const loading = el('div', 'text-secondary small', 'Loading profile…');
+        content.appendChild(loading);
+
+        let puuid = null;
+        let received = false;
+        let matchList = null;
+        const source = new EventSource('/api/summoner/stream?riotId=' + encodeURIComponent(riotId));
+
+        function finish() {
+            source.close();
+        }
+
+        function fail(message) {
+            finish();
+            preview.replaceChildren(el('div', 'col-12 alert alert-danger', message));
+        }
+
+        source.addEventListener('summoner', function(e) {
+            received = true;
+            const data = JSON.parse(e.data);
+            puuid = data.summoner.puuid;
+            const info = card('Summoner Information', 'fa-solid fa-user-astronaut text-primary');
+            const row = el('div', 'd-flex align-items-center');
+            if (data.profileIconUrl) {
+                const icon = el('img', 'rounded-circle me-3 profile-avatar');
+                icon.src = data.profileIconUrl;
+                icon.alt = 'Profile Icon';
+                icon.width = 112;
+                icon.height = 112;
+                row.appendChild(icon);
+            }
+            const text = el('div');
+            text.appendChild(el('h5', 'mb-0', data.summoner.name || riotId));
+            text.appendChild(el('small', 'text-muted', 'Level ' + data.summoner.summonerLevel));
+            row.appendChild(text);
+            info.body.appendChild(row);
+            sidebar.appendChild(info.wrapper);
+        });
+
+        source.addEventListener('leagueEntries', function(e) {
+            const entries = JSON.parse(e.data);
+            if (!entries.length) return;
+            const ranked = card('Ranked Information', 'fa-solid fa-trophy text-warning');
+            entries.forEach(function(entry) {
+                const line = el('div', 'd-flex align-items-center mb-2');
+                if (entry.tier) {
+                    const tierIcon = el('img', 'me-2');
+                    tierIcon.src = '/ui/images/tiers/' + entry.tier.toLowerCase() + '.png';
+                    tierIcon.alt = entry.tier;
+                    tierIcon.width = 40;
+                    tierIcon.height = 40;
+                    line.appendChild(tierIcon);
+                }
+                const text = el('div');
+                text.appendChild(el('strong', null, (entry.queueType || '').replace(/_/g, ' ')));
+                text.appendChild(el('div', 'small text-muted',
+                    entry.tier + ' ' + entry.rank + ' • ' + entry.leaguePoints + ' LP • '
+                    + entry.wins + 'W / ' + entry.losses + 'L'));
+                line.appendChild(text);
+                ranked.body.appendChild(line);
+            });
+            sidebar.appendChild(ranked.wrapper);
+        });
+
+        source.addEventListener('match', function(e) {
+            const data = JSON.parse(e.data);
+            const match = data.match;
+            if (!matchList) {
+                loading.remove();
+                const history = card('Match History', 'fa-solid fa-clock-rotate-left text-info');
+                matchList = el('div', 'list-group list-group-flush');
+                history.body.appendChild(matchList);
+                content.appendChild(history.wrapper);
+            }
+            const me = (match.participants || []).find(function(p) { return p.puuid === puuid; });
+            const item = el('div', 'list-group-item match-row ' + (me && me.win ? 'win' : 'loss'));
+            item.dataset.index = data.index;
+            const title = (match.gameMode ? match.gameMode.replace(/_/g, ' ') : 'Queue ' + match.queueId)
+                + ' (' + Math.floor(match.gameDuration / 60) + 'm ' + (match.gameDuration % 60) + 's)';
+            item.appendChild(el('h5', 'mb-1', title));
+            if (me) {
+                const perform = el('div', 'perform');
+                const champ = el('img', 'champ');
+                champ.src = '/ui/champions/' + me.championName + '.png';
+                champ.alt = me.championName;
+                perform.appendChild(champ);
+                perform.appendChild(el('span', 'fw-medium', me.championName));
+                perform.appendChild(el('span', 'fw-bold', me.kills + '/' + me.deaths + '/' + me.assists));
+                perform.appendChild(el('span', 'badge rounded-pill ' + (me.win
+                    ? 'bg-success-subtle text-success-emphasis' : 'bg-danger-subtle text-danger-emphasis'),
+                    me.win ? 'Victory' : 'Defeat'));
+                item.appendChild(perform);
+            }
+            // Matches arrive in completion order; keep them in match-history order
+            const next = Array.prototype.find.call(matchList.children, function(row) {
+                return Number(row.dataset.index) > data.index;
+            });
+            matchList.insertBefore(item, next || null);
+        });
+
+        source.addEventListener('matchHistory', function() {
+            finish();
+            // The caches are warm now, so the full page renders without new Riot calls
+            form.submit();
+        });
+
+        source.addEventListener('error', function(e) {
+            if (e.data) {
+                fail(JSON.parse(e.data).error);
+                return;
+            }
+            finish();
+            if (!received) {
+                // The stream is unavailable; fall back to the plain form post
+                form.submit();
+            } else {
+                fail('The connection was interrupted. Please try again.');
+            }
+        });
+    });
+});
@@ -0,0 +1,130 @@
+package com.zerox80.riotapi.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerox80.riotapi.model.InfoDto;
+import com.zerox80.riotapi.model.MatchDetailsRecord;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchV5Dto;
+import com.zerox80.riotapi.model.MetadataDto;
+import com.zerox80.riotapi.model.ParticipantDto;
+import com.zerox80.riotapi.repository.MatchDetailsRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MatchDetailsStoreIntegrationTest {
+
+    @MockBean
+    private RiotApiClient riotApiClient;
+
+    @Autowired
+    private MatchDetailsStore matchDetailsStore;
+
+    @Autowired
+    private MatchDetailsRecordRepository matchDetailsRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void cleanUp() {
+        matchDetailsRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testSaveAndFind_roundTripsCompressedMatch() throws InterruptedException {
+        // Arrange
+        ParticipantDto participant = new ParticipantDto();
+        participant.setPuuid("store-puuid");
+        participant.setChampionName("Ahri");
+        participant.setKills(7);
+
+        InfoDto info = new InfoDto();
+        info.setQueueId(420);
+        info.setGameEndTimestamp(1_700_000_000_000L);
+        info.setParticipants(List.of(participant));
+
+        MetadataDto metadata = new MetadataDto();
+        metadata.setMatchId("EUW1_1234567890");
+
+        MatchV5Dto match = new MatchV5Dto();
+        match.setMetadata(metadata);
+        match.setInfo(info);
+
+        // Act
+        matchDetailsStore.save(MatchSummary.from(match));
+        MatchSummary stored = null;
+        for (int i = 0; i < 50 && stored == null; i++) {
+            Thread.sleep(100);
+            stored = matchDetailsStore.find("EUW1_1234567890").join();
+        }
+
+        // Assert
+        assertThat(stored).isNotNull();
+        assertThat(stored.getMatchId()).isEqualTo("EUW1_1234567890");
+        assertThat(stored.getQueueId()).isEqualTo(420);
+        assertThat(stored.getGameEndTimestamp()).isEqualTo(1_700_000_000_000L);
+        assertThat(stored.getParticipants()).singleElement()
+                .satisfies(p -> {
+                    assertThat(p.getChampionName()).isEqualTo("Ahri");
+                    assertThat(p.getKills()).isEqualTo(7);
+                });
+        assertThat(matchDetailsStore.find("EUW1_missing").join()).isNull();
+    }
+
+    @Test
+    void testFind_projectsRowsStoredAsFullMatch() throws IOException {
+        // Arrange
+        String legacyPayload = """
+                {"metadata":{"matchId":"EUW1_42","participants":["legacy-puuid"]},
+                 "info":{"gameMode":"CLASSIC","gameVersion":"14.1","queueId":440,"gameDuration":1500,
+                         "participants":[{"puuid":"legacy-puuid","championName":"Lux","summonerLevel":30,"win":true}]}}
+                """;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(legacyPayload.getBytes(StandardCharsets.UTF_8));
+        }
+        matchDetailsRecordRepository.save(new MatchDetailsRecord("EUW1_42", buffer.toByteArray(), Instant.now()));
+
+        // Act
+        MatchSummary stored = matchDetailsStore.find("EUW1_42").join();
+
+        // Assert
+        assertThat(stored.getMatchId()).isEqualTo("EUW1_42");
+        assertThat(stored.getQueueId()).isEqualTo(440);
+        assertThat(stored.getGameDuration()).isEqualTo(1500);
+        assertThat(stored.participant("legacy-puuid")).isNotNull()
+                .satisfies(p -> {
+                    assertThat(p.getChampionName()).isEqualTo("Lux");
+                    assertThat(p.isWin()).isTrue();
+                });
+    }
+
+    @Test
+    void testShutdown_waitsForPendingWrites() {
+        // Arrange
+        MatchDetailsStore store = new MatchDetailsStore(matchDetailsRecordRepository, objectMapper, true, 1);
+        for (int i = 0; i < 20; i++) {
+            store.save(MatchSummary.of("EUW1_90" + i, 0, 1800, 420, "CLASSIC", List.of(), null));
+        }
+
+        // Act
+        store.shutdown();
+
+        // Assert
+        assertThat(matchDetailsRecordRepository.count()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,88 @@
+package com.zerox80.riotapi.client;
+
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchSummary.Participant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapMatchCacheTest {
+
+    @Test
+    void get_returnsStoredMatchFromSlab() {
+        OffHeapMatchCache cache = new OffHeapMatchCache(true, 2, 1, new SimpleMeterRegistry());
+
+        cache.put(match("EUW1_100"));
+        MatchSummary read = cache.get("EUW1_100");
+
+        assertThat(read.getMatchId()).isEqualTo("EUW1_100");
+        assertThat(read.getQueueId()).isEqualTo(420);
+        assertThat(read.getGameMode()).isEqualTo("CLASSIC");
+        assertThat(read.participant("offheap-puuid-3"))
+                .satisfies(p -> {
+                    assertThat(p.getChampionName()).isEqualTo("Champion3");
+                    assertThat(p.getKda()).isEqualTo("3/1/6");
+                    assertThat(p.getTeamId()).isEqualTo(100);
+                    assertThat(p.getRiotIdTagline()).isNull();
+                });
+        assertThat(cache.get("EUW1_101")).isNull();
+    }
+
+    @Test
+    void put_evictsOldestSlabWhenRingWraps() {
+        // Two slabs of 1 MB; every record is a few hundred bytes
+        OffHeapMatchCache cache = new OffHeapMatchCache(true, 2, 1, new SimpleMeterRegistry());
+
+        int total = 12_000;
+        for (int i = 0; i < total; i++) {
+            cache.put(match("EUW1_" + i));
+        }
+
+        assertThat(cache.usedBytes()).isLessThanOrEqualTo(2L * 1024 * 1024);
+        assertThat(cache.size()).isLessThan(total);
+        assertThat(cache.get("EUW1_0")).isNull();
+        assertThat(cache.get("EUW1_" + (total - 1))).isNotNull();
+    }
+
+    @Test
+    void offsetIndex_matchesHashMapUnderRandomOperations() {
+        OffHeapMatchCache.OffsetIndex index = new OffHeapMatchCache.OffsetIndex(16);
+        Map<Long, Long> reference = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 200_000; i++) {
+            // A small key space forces long probe chains and frequent backward shifts
+            long key = OffHeapMatchCache.hash("EUW1_" + random.nextInt(5_000));
+            long value = random.nextInt(1 << 20);
+            if (random.nextInt(3) == 0) {
+                Long current = reference.get(key);
+                if (current != null) {
+                    index.remove(key, current);
+                    reference.remove(key);
+                }
+            } else {
+                index.put(key, value);
+                reference.put(key, value);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(reference.size());
+        reference.forEach((key, value) -> assertThat(index.get(key)).isEqualTo(value));
+    }
+
+    private static MatchSummary match(String matchId) {
+        List<Participant> participants = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            participants.add(new Participant("offheap-puuid-" + i, "Champion" + i, "Player" + i, i == 3 ? null : "EUW",
+                    null, i, 1, 2 * i, i < 5 ? 100 : 200, i < 5));
+        }
+        return MatchSummary.of(matchId, 1_700_000_000_000L, 1800, 420, "CLASSIC", participants, null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.zerox80.riotapi.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+
+    private static final String URL = "https://europe.api.riotgames.com/riot/account/v1/accounts/by-riot-id/Streamer/EUW";
+
+    @Test
+    void execute_sharesOneCallBetweenConcurrentCallers() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RequestCoalescer coalescer = new RequestCoalescer(new RiotApiMetrics(registry));
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(coalescer.execute(URL, "Account", () -> {
+                calls.incrementAndGet();
+                return response;
+            }));
+        }
+        // A caller cancelling its copy must not fail the others
+        results.get(0).cancel(true);
+        response.complete("account");
+
+        assertThat(calls).hasValue(1);
+        assertThat(results.subList(1, results.size())).allSatisfy(result -> assertThat(result.join()).isEqualTo("account"));
+        assertThat(coalescer.inFlight()).isZero();
+        assertThat(registry.get("riot.api.singleflight").tag("result", "joined").counter().count()).isEqualTo(19.0);
+        assertThat(registry.get("riot.api.singleflight").tag("result", "sent").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void execute_sendsAgainOnceTheCallFailed() {
+        RequestCoalescer coalescer = new RequestCoalescer(new RiotApiMetrics(new SimpleMeterRegistry()));
+        CompletableFuture<String> failing = new CompletableFuture<>();
+
+        CompletableFuture<String> first = coalescer.execute(URL, "Account", () -> failing);
+        CompletableFuture<String> joined = coalescer.execute(URL, "Account", () -> CompletableFuture.completedFuture("unused"));
+        failing.completeExceptionally(new RiotApiRequestException("API request (Account) failed with status code: 500"));
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(RiotApiRequestException.class);
+        assertThatThrownBy(joined::join).hasCauseInstanceOf(RiotApiRequestException.class);
+        assertThat(coalescer.execute(URL, "Account", () -> CompletableFuture.completedFuture("retried")).join())
+                .isEqualTo("retried");
+    }
+}
@@ -0,0 +1,232 @@
+package com.zerox80.riotapi.client;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.zerox80.riotapi.model.AccountDto;
+import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.Summoner;
+import com.zerox80.riotapi.repository.MatchDetailsRecordRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the real {@link RiotApiClient} against {@link RiotApiStubServer}.
+ */
+@SpringBootTest(properties = {
+        "riot.api.key=stub-key",
+        "riot.api.region=euw1",
+        "riot.api.community-dragon.url=http://localhost",
+        // Every match ID lookup resynchronises the head of the timeline
+        "riot.api.match-ids.head-sync-seconds=0",
+        "riot.api.negative-cache.ttl-seconds=1"
+})
+class RiotApiClientStubTest {
+
+    private static RiotApiStubServer stub;
+
+    @Autowired
+    private RiotApiClient riotApiClient;
+
+    @Autowired
+    private MatchDetailsRecordRepository matchDetailsRecordRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @DynamicPropertySource
+    static void riotApiProperties(DynamicPropertyRegistry registry) throws IOException {
+        stub = RiotApiStubServer.start(0);
+        registry.add("riot.api.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        matchDetailsRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testClient_resolvesPlayerAndMatchesFromStub() {
+        // Act
+        AccountDto account = riotApiClient.getAccountByRiotId("Stub Player", "EUW").join();
+        Summoner summoner = riotApiClient.getSummonerByPuuid(account.getPuuid()).join();
+        List<LeagueEntryDTO> entries = riotApiClient.getLeagueEntriesByPuuid(account.getPuuid()).join();
+        List<String> matchIds = riotApiClient.getMatchIdsByPuuid(account.getPuuid(), 5).join();
+        MatchSummary match = riotApiClient.getMatchDetails(matchIds.get(0)).join();
+
+        // Assert
+        assertThat(account.getPuuid()).isEqualTo(RiotApiStubServer.puuidOf("Stub Player", "EUW"));
+        assertThat(account.getGameName()).isEqualTo("Stub Player");
+        assertThat(summoner.getSummonerLevel()).isEqualTo(312);
+        assertThat(entries).extracting(LeagueEntryDTO::getQueueType).containsExactly("RANKED_SOLO_5x5", "RANKED_FLEX_SR");
+        assertThat(matchIds).hasSize(5).doesNotHaveDuplicates();
+        assertThat(match.getMatchId()).isEqualTo(matchIds.get(0));
+        assertThat(match.getParticipants()).hasSize(10);
+        assertThat(match.participant(account.getPuuid())).isNotNull();
+    }
+
+    @Test
+    void testMatchIds_headResyncFetchesOnlyNewIds() {
+        // Arrange
+        String puuid = riotApiClient.getAccountByRiotId("Timeline Head", "EUW").join().getPuuid();
+        List<String> before = riotApiClient.getMatchIdsByPuuid(puuid, 5).join();
+        List<String> newIds = stub.playNewMatches("Timeline Head", "EUW", 2);
+        int pages = stub.requestCount("match-ids");
+        int headSyncs = stub.requestCount("match-ids-since");
+
+        // Act
+        List<String> after = riotApiClient.getMatchIdsByPuuid(puuid, 5).join();
+
+        // Assert
+        assertThat(after).containsExactly(newIds.get(0), newIds.get(1), before.get(0), before.get(1), before.get(2));
+        assertThat(stub.requestCount("match-ids-since") - headSyncs).isEqualTo(1);
+        assertThat(stub.requestCount("match-ids") - pages).isZero();
+    }
+
+    @Test
+    void testMatchIds_pagesPastTheCachedTail() {
+        // Arrange
+        String puuid = riotApiClient.getAccountByRiotId("Timeline Tail", "EUW").join().getPuuid();
+        List<String> cached = riotApiClient.getMatchIdsByPuuid(puuid, 5).join();
+        int pages = stub.requestCount("match-ids");
+
+        // Act
+        List<String> extended = riotApiClient.getMatchIdsByPuuid(puuid, 12).join();
+
+        // Assert: one page below the cached five, the cached IDs are not requested again
+        assertThat(extended).hasSize(12).doesNotHaveDuplicates().startsWith(cached.toArray(new String[0]));
+        assertThat(stub.requestCount("match-ids") - pages).isEqualTo(1);
+    }
+
+    @Test
+    void testMatchIds_stopsPagingAtTheEndOfHistory() {
+        // Arrange
+        String puuid = riotApiClient.getAccountByRiotId("Timeline End", "EUW").join().getPuuid();
+        List<String> all = riotApiClient.getMatchIdsByPuuid(puuid, 50).join();
+        int pages = stub.requestCount("match-ids");
+
+        // Act
+        List<String> again = riotApiClient.getMatchIdsByPuuid(puuid, 50).join();
+
+        // Assert: the stub only has 20 matches, and the timeline knows there are no more
+        assertThat(all).hasSize(20).doesNotHaveDuplicates();
+        assertThat(again).isEqualTo(all);
+        assertThat(stub.requestCount("match-ids") - pages).isZero();
+    }
+
+    @Test
+    void testMatchIds_concurrentCallersForOnePlayerShareOneFetch() {
+        // Arrange
+        String puuid = riotApiClient.getAccountByRiotId("Timeline Shared", "EUW").join().getPuuid();
+        int pages = stub.requestCount("match-ids");
+        stub.latency(Duration.ofMillis(200), Duration.ofMillis(200));
+
+        try {
+            // Act: different counts, so the request coalescer cannot merge the two pages
+            CompletableFuture<List<String>> first = riotApiClient.getMatchIdsByPuuid(puuid, 15);
+            CompletableFuture<List<String>> second = riotApiClient.getMatchIdsByPuuid(puuid, 10);
+
+            // Assert: the second caller waits for the first and is answered from its page
+            assertThat(first.join()).hasSize(15);
+            assertThat(second.join()).isEqualTo(first.join().subList(0, 10));
+            assertThat(stub.requestCount("match-ids") - pages).isEqualTo(1);
+        } finally {
+            stub.latency(Duration.ZERO, Duration.ZERO);
+        }
+    }
+
+    @Test
+    void testClient_returnsNullForMissingAccount() {
+        // Act
+        AccountDto account = riotApiClient.getAccountByRiotId("Missing Player", "EUW").join();
+
+        // Assert
+        assertThat(account).isNull();
+    }
+
+    @Test
+    void testClient_remembersMissingAccountUntilTheTtlExpires() throws InterruptedException {
+        // Arrange
+        int before = stub.requestCount("account");
+
+        // Act
+        AccountDto first = riotApiClient.getAccountByRiotId("Missing Twice", "EUW").join();
+        AccountDto cached = riotApiClient.getAccountByRiotId("Missing Twice", "EUW").join();
+        int requestsWhileCached = stub.requestCount("account") - before;
+        Thread.sleep(1100);
+        AccountDto expired = riotApiClient.getAccountByRiotId("Missing Twice", "EUW").join();
+
+        // Assert
+        assertThat(first).isNull();
+        assertThat(cached).isNull();
+        assertThat(expired).isNull();
+        assertThat(requestsWhileCached).isEqualTo(1);
+        assertThat(stub.requestCount("account") - before).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testClient_refreshSkipsAccountKnownToBeMissing() {
+        // Arrange
+        AsyncLoadingCache<Object, Object> accounts =
+                (AsyncLoadingCache<Object, Object>) ((CaffeineCache) cacheManager.getCache("accounts")).getAsyncCache();
+        riotApiClient.getAccountByRiotId("Missing Refresh", "EUW").join();
+        int before = stub.requestCount("account");
+
+        // Act
+        Object refreshed = accounts.synchronous().refresh("missing refresh#euw").join();
+
+        // Assert
+        assertThat(refreshed).isNull();
+        assertThat(stub.requestCount("account") - before).isZero();
+    }
+
+    @Test
+    void testClient_retriesAfter429WithRetryAfter() {
+        // Arrange
+        int before = stub.requestCount("account");
+        stub.rateLimitNext(1, 1);
+
+        // Act
+        long start = System.nanoTime();
+        AccountDto account = riotApiClient.getAccountByRiotId("Throttled Player", "EUW").join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertThat(account.getGameName()).isEqualTo("Throttled Player");
+        assertThat(stub.requestCount("account") - before).isEqualTo(2);
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(1000);
+    }
+
+    @Test
+    void testClient_retriesServerErrors() {
+        // Arrange
+        int before = stub.requestCount("account");
+        stub.failNext(1, 503);
+
+        // Act
+        AccountDto account = riotApiClient.getAccountByRiotId("Unlucky Player", "EUW").join();
+
+        // Assert
+        assertThat(account.getGameName()).isEqualTo("Unlucky Player");
+        assertThat(stub.requestCount("account") - before).isEqualTo(2);
+    }
+}
@@ -0,0 +1,410 @@
+package com.zerox80.riotapi.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the Riot API, serving the recorded fixtures in {@code src/test/resources/riot-stub}
+ * for the account, summoner, league, match ID and match detail endpoints. Point {@code riot.api.base-url} at
+ * {@link #baseUrl()} to run the full stack without an API key.
+ * <p>
+ * Every Riot ID resolves to its own player with 20 matches, except names starting with {@code missing}, which
+ * answer 404. {@link #playNewMatches} puts newer matches on top of a player's history. Latency, 5xx responses and 429s with {@code Retry-After} can be injected either at a fixed rate
+ * or for the next few requests.
+ */
+public class RiotApiStubServer implements AutoCloseable {
+
+    private static final Pattern ACCOUNT = Pattern.compile("/riot/account/v1/accounts/by-riot-id/([^/]+)/([^/]+)");
+    private static final Pattern SUMMONER = Pattern.compile("/lol/summoner/v4/summoners/by-puuid/([^/]+)");
+    private static final Pattern LEAGUE = Pattern.compile("/lol/league/v4/entries/by-puuid/([^/]+)");
+    private static final Pattern MATCH_IDS = Pattern.compile("/lol/match/v5/matches/by-puuid/([^/]+)/ids");
+    private static final Pattern MATCH = Pattern.compile("/lol/match/v5/matches/([A-Z0-9]+_\\d+)");
+    private static final String NOT_FOUND_BODY = "{\"status\":{\"message\":\"Data not found\",\"status_code\":404}}";
+
+    private final HttpServer server;
+    private final Map<String, String> fixtures = new HashMap<>();
+    private final List<Long> recordedMatchIds;
+    private final Map<String, Player> playersByPuuid = new ConcurrentHashMap<>();
+    private final Map<String, MatchRef> matchesById = new ConcurrentHashMap<>();
+    private final Map<String, List<PlayedMatch>> newMatchesByPuuid = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger(1);
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final Queue<Integer> scriptedFailures = new ConcurrentLinkedQueue<>();
+
+    private volatile long minLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile double serverErrorRate;
+    private volatile double rateLimitRate;
+    private volatile int retryAfterSeconds = 1;
+    private volatile String appRateLimit;
+
+    private RiotApiStubServer(int port) throws IOException {
+        for (String name : List.of("account", "summoner", "league-entries", "match-ids", "match")) {
+            fixtures.put(name, readFixture(name));
+        }
+        this.recordedMatchIds = Pattern.compile("\"[A-Z0-9]+_(\\d+)\"").matcher(fixtures.get("match-ids")).results()
+                .map(result -> Long.parseLong(result.group(1)))
+                .toList();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts a stub on the given port, or on a free one for port 0.
+     */
+    public static RiotApiStubServer start(int port) throws IOException {
+        RiotApiStubServer stub = new RiotApiStubServer(port);
+        stub.server.start();
+        return stub;
+    }
+
+    /**
+     * Value for {@code riot.api.base-url}; every routing value is served from the same address.
+     */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Delays every response by a uniformly distributed time between {@code min} and {@code max}.
+     */
+    public RiotApiStubServer latency(Duration min, Duration max) {
+        this.minLatencyMillis = min.toMillis();
+        this.maxLatencyMillis = Math.max(min.toMillis(), max.toMillis());
+        return this;
+    }
+
+    /**
+     * Answers the given fraction of requests with a 503.
+     */
+    public RiotApiStubServer serverErrorRate(double rate) {
+        this.serverErrorRate = rate;
+        return this;
+    }
+
+    /**
+     * Answers the given fraction of requests with a 429 carrying {@code Retry-After: retryAfterSeconds}.
+     */
+    public RiotApiStubServer rateLimitRate(double rate, int retryAfterSeconds) {
+        this.rateLimitRate = rate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        return this;
+    }
+
+    /**
+     * Sends {@code X-App-Rate-Limit} with every response, e.g. {@code 500:10,30000:600} for a production key.
+     */
+    public RiotApiStubServer appRateLimit(String spec) {
+        this.appRateLimit = spec;
+        return this;
+    }
+
+    /**
+     * Answers the next {@code times} requests with {@code status} instead of the fixture.
+     */
+    public void failNext(int times, int status) {
+        for (int i = 0; i < times; i++) {
+            scriptedFailures.add(status);
+        }
+    }
+
+    /**
+     * Answers the next {@code times} requests with 429 and {@code Retry-After: retryAfterSeconds}.
+     */
+    public void rateLimitNext(int times, int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        failNext(times, 429);
+    }
+
+    /**
+     * Lets the player of a Riot ID finish {@code count} more matches now; they are returned newest first ahead of
+     * the recorded history, and match ID queries with a {@code startTime} before now include them.
+     *
+     * @return the new match IDs, newest first.
+     */
+    public List<String> playNewMatches(String gameName, String tagLine, int count) {
+        Player player = playersByPuuid.get(puuidOf(gameName, tagLine));
+        if (player == null) {
+            throw new IllegalStateException("Look up the account of " + gameName + "#" + tagLine + " first");
+        }
+        List<PlayedMatch> played = newMatchesByPuuid.computeIfAbsent(player.puuid(), puuid -> new CopyOnWriteArrayList<>());
+        long endedAt = Instant.now().getEpochSecond();
+        List<String> matchIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String matchId = player.matchId(9_000_000_000L + played.size());
+            matchesById.put(matchId, new MatchRef(player, 0));
+            played.add(0, new PlayedMatch(matchId, endedAt));
+            matchIds.add(0, matchId);
+        }
+        return matchIds;
+    }
+
+    /**
+     * Requests received per endpoint: {@code account}, {@code summoner}, {@code league}, {@code match-ids},
+     * {@code match-ids-since} (match ID queries with a {@code startTime}) or {@code match}.
+     */
+    public int requestCount(String endpoint) {
+        AtomicInteger count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * The PUUID served for a Riot ID.
+     */
+    public static String puuidOf(String gameName, String tagLine) {
+        String riotId = (gameName + "#" + tagLine).toLowerCase(Locale.ROOT);
+        return "stub-" + UUID.nameUUIDFromBytes(riotId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            String path = uri.getRawPath();
+            sleepLatency();
+
+            Integer scripted = scriptedFailures.poll();
+            if (scripted != null) {
+                countRequest(endpointOf(path));
+                sendError(exchange, scripted);
+                return;
+            }
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < rateLimitRate) {
+                countRequest(endpointOf(path));
+                sendError(exchange, 429);
+                return;
+            }
+            if (roll < rateLimitRate + serverErrorRate) {
+                countRequest(endpointOf(path));
+                sendError(exchange, 503);
+                return;
+            }
+
+            String body = route(path, uri.getRawQuery());
+            if (body == null) {
+                send(exchange, 404, NOT_FOUND_BODY);
+            } else {
+                send(exchange, 200, body);
+            }
+        }
+    }
+
+    private String route(String path, String query) {
+        Matcher matcher;
+        if ((matcher = ACCOUNT.matcher(path)).matches()) {
+            countRequest("account");
+            String gameName = decode(matcher.group(1));
+            String tagLine = decode(matcher.group(2));
+            if (gameName.toLowerCase(Locale.ROOT).startsWith("missing")) {
+                return null;
+            }
+            Player player = playersByPuuid.computeIfAbsent(puuidOf(gameName, tagLine),
+                    puuid -> new Player(puuid, gameName, tagLine, nextSlot.getAndIncrement()));
+            return render("account", player, Map.of());
+        }
+        if ((matcher = SUMMONER.matcher(path)).matches()) {
+            countRequest("summoner");
+            Player player = playersByPuuid.get(matcher.group(1));
+            return player != null ? render("summoner", player, Map.of()) : null;
+        }
+        if ((matcher = LEAGUE.matcher(path)).matches()) {
+            countRequest("league");
+            Player player = playersByPuuid.get(matcher.group(1));
+            return player != null ? render("league-entries", player, Map.of()) : "[]";
+        }
+        if ((matcher = MATCH_IDS.matcher(path)).matches()) {
+            Player player = playersByPuuid.get(matcher.group(1));
+            Map<String, String> params = parseQuery(query);
+            countRequest(params.containsKey("startTime") ? "match-ids-since" : "match-ids");
+            if (player == null) {
+                return "[]";
+            }
+            // Recorded matches are hours old, so only matches played through playNewMatches can be newer than a sync
+            List<PlayedMatch> played = newMatchesByPuuid.getOrDefault(player.puuid(), List.of());
+            List<String> history = new ArrayList<>();
+            if (params.containsKey("startTime")) {
+                long startTime = Long.parseLong(params.get("startTime"));
+                played.stream().filter(match -> match.endedAtEpochSeconds() >= startTime).forEach(match -> history.add(match.matchId()));
+            } else {
+                played.forEach(match -> history.add(match.matchId()));
+                for (int i = 0; i < recordedMatchIds.size(); i++) {
+                    String matchId = player.matchId(recordedMatchIds.get(i));
+                    matchesById.putIfAbsent(matchId, new MatchRef(player, i));
+                    history.add(matchId);
+                }
+            }
+            int start = Integer.parseInt(params.getOrDefault("start", "0"));
+            int count = Integer.parseInt(params.getOrDefault("count", "20"));
+            StringBuilder ids = new StringBuilder("[");
+            for (int i = start; i < Math.min(history.size(), start + count); i++) {
+                ids.append(ids.length() > 1 ? "," : "").append('"').append(history.get(i)).append('"');
+            }
+            return ids.append(']').toString();
+        }
+        if ((matcher = MATCH.matcher(path)).matches()) {
+            countRequest("match");
+            String matchId = matcher.group(1);
+            MatchRef match = matchesById.get(matchId);
+            if (match == null) {
+                return null;
+            }
+            long gameStart = Instant.now().minus(Duration.ofHours(3L * (match.index() + 1))).toEpochMilli();
+            boolean blueWin = match.index() % 3 != 0;
+            return render("match", match.player(), Map.of(
+                    "matchId", matchId,
+                    "gameId", matchId.substring(matchId.indexOf('_') + 1),
+                    "gameCreation", String.valueOf(gameStart - 60_000),
+                    "gameStart", String.valueOf(gameStart),
+                    "gameEnd", String.valueOf(gameStart + 1_784_000),
+                    "blueWin", String.valueOf(blueWin),
+                    "redWin", String.valueOf(!blueWin)));
+        }
+        countRequest("other");
+        return null;
+    }
+
+    private String render(String fixture, Player player, Map<String, String> extra) {
+        String body = fixtures.get(fixture)
+                .replace("${puuid}", player.puuid())
+                .replace("${gameName}", player.gameName())
+                .replace("${tagLine}", player.tagLine())
+                .replace("${summonerId}", "stub-summoner-" + player.slot())
+                .replace("${accountId}", "stub-account-" + player.slot());
+        for (Map.Entry<String, String> entry : extra.entrySet()) {
+            body = body.replace("${" + entry.getKey() + "}", entry.getValue());
+        }
+        return body;
+    }
+
+    private void sendError(HttpExchange exchange, int status) throws IOException {
+        if (status == 429) {
+            exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfterSeconds));
+            exchange.getResponseHeaders().add("X-Rate-Limit-Type", "method");
+        }
+        send(exchange, status, "{\"status\":{\"message\":\"Injected by stub\",\"status_code\":" + status + "}}");
+    }
+
+    private void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        String spec = appRateLimit;
+        if (spec != null) {
+            exchange.getResponseHeaders().add("X-App-Rate-Limit", spec);
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void sleepLatency() {
+        long min = minLatencyMillis;
+        long max = maxLatencyMillis;
+        if (max <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void countRequest(String endpoint) {
+        requestCounts.computeIfAbsent(endpoint, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static String endpointOf(String path) {
+        if (ACCOUNT.matcher(path).matches()) {
+            return "account";
+        }
+        if (SUMMONER.matcher(path).matches()) {
+            return "summoner";
+        }
+        if (LEAGUE.matcher(path).matches()) {
+            return "league";
+        }
+        if (MATCH_IDS.matcher(path).matches()) {
+            return "match-ids";
+        }
+        return MATCH.matcher(path).matches() ? "match" : "other";
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(decode(pair.substring(0, separator)), decode(pair.substring(separator + 1)));
+            }
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String readFixture(String name) {
+        String resource = "/riot-stub/" + name + ".json";
+        try (InputStream in = RiotApiStubServer.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing stub fixture " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Player(String puuid, String gameName, String tagLine, int slot) {
+
+        /**
+         * Shifts a recorded match ID into a range of its own so players never share matches.
+         */
+        String matchId(long recordedId) {
+            return "EUW1_" + (recordedId + slot * 10_000_000_000L);
+        }
+    }
+
+    private record MatchRef(Player player, int index) {
+    }
+
+    private record PlayedMatch(String matchId, long endedAtEpochSeconds) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.zerox80.riotapi.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RiotRateLimiterTest {
+
+    private static final String HOST = "euw1.api.riotgames.com";
+
+    @Test
+    void tryAcquire_admitsUntilDefaultAppLimitIsReached() {
+        RiotRateLimiter limiter = new RiotRateLimiter(true, "3:10", new SimpleMeterRegistry());
+
+        assertThat(limiter.tryAcquire(HOST, "Summoner")).isZero();
+        assertThat(limiter.tryAcquire(HOST, "Summoner")).isZero();
+        assertThat(limiter.tryAcquire(HOST, "MatchDetails")).isZero();
+
+        assertThat(limiter.tryAcquire(HOST, "Summoner")).isPositive();
+        // Other routing hosts have their own application budget
+        assertThat(limiter.tryAcquire("europe.api.riotgames.com", "Account")).isZero();
+    }
+
+    @Test
+    void onResponse_appliesMethodLimitAndReportedCounts() {
+        RiotRateLimiter limiter = new RiotRateLimiter(true, "100:10", new SimpleMeterRegistry());
+
+        assertThat(limiter.tryAcquire(HOST, "LeagueEntries")).isZero();
+        limiter.onResponse(HOST, "LeagueEntries", 200, headers(Map.of(
+                "X-Method-Rate-Limit", List.of("5:10"),
+                "X-Method-Rate-Limit-Count", List.of("5:10"))));
+
+        assertThat(limiter.tryAcquire(HOST, "LeagueEntries")).isPositive();
+        assertThat(limiter.tryAcquire(HOST, "Summoner")).isZero();
+    }
+
+    @Test
+    void onResponse_blocksScopeNamedBy429() {
+        RiotRateLimiter limiter = new RiotRateLimiter(true, "100:10", new SimpleMeterRegistry());
+
+        limiter.onResponse(HOST, "MatchIds", 429, headers(Map.of(
+                "Retry-After", List.of("3"),
+                "X-Rate-Limit-Type", List.of("application"))));
+
+        long waitMillis = limiter.tryAcquire(HOST, "Summoner");
+        assertThat(waitMillis).isBetween(1L, 3000L);
+    }
+
+    @Test
+    void remainingGauge_tracksTightestWindowPerScope() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RiotRateLimiter limiter = new RiotRateLimiter(true, "5:1,8:120", registry);
+
+        limiter.tryAcquire(HOST, "Summoner");
+        limiter.tryAcquire(HOST, "Summoner");
+        limiter.onResponse(HOST, "Summoner", 200, headers(Map.of(
+                "X-Method-Rate-Limit", List.of("10:10"),
+                "X-Method-Rate-Limit-Count", List.of("7:10"))));
+
+        assertThat(registry.get("riot.ratelimit.remaining").tag("scope", "application").gauge().value()).isEqualTo(3.0);
+        assertThat(registry.get("riot.ratelimit.remaining").tag("scope", "method").tag("method", "Summoner").gauge().value())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    void tryAcquire_alwaysAdmitsWhenDisabled() {
+        RiotRateLimiter limiter = new RiotRateLimiter(false, "1:10", new SimpleMeterRegistry());
+
+        assertThat(limiter.tryAcquire(HOST, "Summoner")).isZero();
+        assertThat(limiter.tryAcquire(HOST, "Summoner")).isZero();
+    }
+
+    private static HttpHeaders headers(Map<String, List<String>> values) {
+        return HttpHeaders.of(values, (name, value) -> true);
+    }
+}
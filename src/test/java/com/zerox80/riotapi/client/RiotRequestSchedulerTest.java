@@ -0,0 +1,73 @@
+package com.zerox80.riotapi.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RiotRequestSchedulerTest {
+
+    private static final String HOST = "euw1.api.riotgames.com";
+
+    @Test
+    void submit_admitsInteractiveBeforeQueuedBackgroundWork() throws Exception {
+        RiotRateLimiter limiter = new RiotRateLimiter(true, "1:1", new SimpleMeterRegistry());
+        RiotRequestScheduler scheduler = new RiotRequestScheduler(limiter, new SimpleMeterRegistry(), 10, 10, 10, 0.2, 0.4);
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<String> first = scheduler.submit(RequestPriority.INTERACTIVE, HOST, "Summoner", () -> start(started, "first"));
+        CompletableFuture<String> bulk = scheduler.submit(RequestPriority.BULK, HOST, "Summoner", () -> start(started, "bulk"));
+        CompletableFuture<String> interactive = scheduler.submit(RequestPriority.INTERACTIVE, HOST, "Summoner", () -> start(started, "interactive"));
+
+        assertThat(scheduler.queueDepth(RequestPriority.BULK)).isEqualTo(1);
+        CompletableFuture.allOf(first, bulk, interactive).get(5, TimeUnit.SECONDS);
+
+        assertThat(started).containsExactly("first", "interactive", "bulk");
+    }
+
+    @Test
+    void submit_rejectsWhenQueueIsFull() {
+        RiotRateLimiter limiter = new RiotRateLimiter(true, "1:60", new SimpleMeterRegistry());
+        RiotRequestScheduler scheduler = new RiotRequestScheduler(limiter, new SimpleMeterRegistry(), 10, 10, 1, 0.2, 0.4);
+
+        scheduler.submit(RequestPriority.BULK, HOST, "MatchDetails", () -> CompletableFuture.completedFuture("admitted"));
+        scheduler.submit(RequestPriority.BULK, HOST, "MatchDetails", () -> CompletableFuture.completedFuture("queued"));
+        CompletableFuture<String> rejected = scheduler.submit(RequestPriority.BULK, HOST, "MatchDetails",
+                () -> CompletableFuture.completedFuture("rejected"));
+
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(RiotApiRequestException.class);
+    }
+
+    @Test
+    void submit_asksTheLimiterOncePerBlockedScopePerDrain() {
+        AtomicInteger limiterCalls = new AtomicInteger();
+        RiotRateLimiter limiter = new RiotRateLimiter(true, "1:60", new SimpleMeterRegistry()) {
+            @Override
+            public synchronized long tryAcquire(String host, String method, double reserveFraction) {
+                limiterCalls.incrementAndGet();
+                return super.tryAcquire(host, method, reserveFraction);
+            }
+        };
+        RiotRequestScheduler scheduler = new RiotRequestScheduler(limiter, new SimpleMeterRegistry(), 100, 10, 10, 0.2, 0.4);
+
+        for (int i = 0; i < 50; i++) {
+            scheduler.submit(RequestPriority.INTERACTIVE, HOST, "MatchDetails", () -> CompletableFuture.completedFuture("queued"));
+        }
+
+        // Each submit drains once; a scan of the whole queue per drain would take 1,275 calls
+        assertThat(scheduler.queueDepth(RequestPriority.INTERACTIVE)).isEqualTo(49);
+        assertThat(limiterCalls).hasValue(50);
+    }
+
+    private static CompletableFuture<String> start(List<String> started, String name) {
+        started.add(name);
+        return CompletableFuture.completedFuture(name);
+    }
+}
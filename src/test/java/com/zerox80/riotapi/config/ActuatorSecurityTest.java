@@ -0,0 +1,65 @@
+package com.zerox80.riotapi.config;
+
+import com.zerox80.riotapi.RiotApiApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActuatorSecurityTest {
+
+    @Test
+    void testActuator_servesPrometheusOnlyOnManagementPort() throws Exception {
+        try (ConfigurableApplicationContext context = start("management.server.port=0")) {
+            // Arrange
+            int serverPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+            int managementPort = Integer.parseInt(context.getEnvironment().getProperty("local.management.port"));
+
+            // Act & Assert
+            assertThat(status(managementPort, "/actuator/prometheus")).isEqualTo(200);
+            assertThat(status(managementPort, "/actuator/health")).isEqualTo(200);
+            assertThat(status(serverPort, "/actuator/prometheus")).isEqualTo(404);
+        }
+    }
+
+    @Test
+    void testActuator_rejectsEverythingButHealthOnApplicationPort() throws Exception {
+        try (ConfigurableApplicationContext context = start()) {
+            // Arrange
+            int serverPort = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            // Act & Assert
+            assertThat(status(serverPort, "/actuator/health")).isEqualTo(200);
+            assertThat(status(serverPort, "/actuator/prometheus")).isEqualTo(403);
+            assertThat(status(serverPort, "/actuator/info")).isEqualTo(403);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(properties));
+        allProperties.add("server.port=0");
+        allProperties.add("riot.api.key=actuator-test");
+        allProperties.add("riot.api.region=euw1");
+        allProperties.add("riot.api.community-dragon.url=http://localhost");
+        allProperties.add("management.endpoints.web.exposure.include=health,info,prometheus");
+        return new SpringApplicationBuilder(RiotApiApplication.class)
+                .properties(allProperties.toArray(new String[0]))
+                .run();
+    }
+
+    private static int status(int port, String path) throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.zerox80.riotapi.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.zerox80.riotapi.client.RequestPriority;
+import com.zerox80.riotapi.client.RiotApiClient;
+import com.zerox80.riotapi.model.Summoner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CacheConfigTest {
+
+    private static final String PUUID = "refresh-puuid";
+
+    @Test
+    void testRefreshAhead_staleReadReturnsCachedValueAndReloadsOnceAtPrefetchPriority() {
+        // Arrange
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = nanos::get;
+        RiotApiClient riotApiClient = mock(RiotApiClient.class);
+        CompletableFuture<Summoner> reload = new CompletableFuture<>();
+        when(riotApiClient.lookupSummonerByPuuid(anyString(), any())).thenReturn(reload);
+
+        new ApplicationContextRunner()
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withBean(Ticker.class, () -> ticker)
+                .withBean(RiotApiClient.class, () -> riotApiClient)
+                .withUserConfiguration(CacheConfig.class)
+                .run(context -> {
+                    Cache summoners = context.getBean(CacheManager.class).getCache("summoners");
+                    summoners.put(PUUID, summoner(1));
+                    nanos.addAndGet(Duration.ofMinutes(61).toNanos());
+
+                    // Act: two stale reads while the reload is still in flight
+                    Object firstRead = summoners.retrieve(PUUID).join();
+                    Object secondRead = summoners.retrieve(PUUID).join();
+                    reload.complete(summoner(2));
+
+                    // Assert
+                    assertThat(firstRead).isInstanceOfSatisfying(Summoner.class,
+                            summoner -> assertThat(summoner.getSummonerLevel()).isEqualTo(1));
+                    assertThat(secondRead).isInstanceOfSatisfying(Summoner.class,
+                            summoner -> assertThat(summoner.getSummonerLevel()).isEqualTo(1));
+                    verify(riotApiClient, times(1)).lookupSummonerByPuuid(PUUID, RequestPriority.PREFETCH);
+                    assertThat(summoners.retrieve(PUUID).join()).isInstanceOfSatisfying(Summoner.class,
+                            summoner -> assertThat(summoner.getSummonerLevel()).isEqualTo(2));
+                });
+    }
+
+    private static Summoner summoner(int level) {
+        return new Summoner("id", "account", PUUID, "Refreshed", 1, 0L, level);
+    }
+}
@@ -0,0 +1,71 @@
+package com.zerox80.riotapi.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchSummary.Participant;
+import com.zerox80.riotapi.model.Summoner;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachePayloadWeigherTest {
+
+    @Test
+    void testWeigh_estimatesRepresentativePayloads() {
+        // Arrange
+        MatchSummary match = match("EUW1_7000000001");
+        Summoner summoner = new Summoner("summoner-" + "x".repeat(54), "account-" + "x".repeat(48),
+                puuid("weigher-summoner"), "Weigher", 4568, 1_700_000_000_000L, 312);
+
+        // Act
+        int matchWeight = CachePayloadWeigher.INSTANCE.weigh(match.getMatchId(), match);
+        int summonerWeight = CachePayloadWeigher.INSTANCE.weigh(summoner.getPuuid(), summoner);
+
+        // Assert: close to the ~3.8 KB a match of ten new players retains on the heap, and the few hundred
+        // bytes of a summoner with its four identifier strings
+        assertThat(matchWeight).isBetween(2_000, 6_000);
+        assertThat(summonerWeight).isBetween(400, 1_000);
+    }
+
+    @Test
+    void testWeigh_boundsCacheByEstimatedBytes() {
+        // Arrange: room for about five matches
+        long budget = 5L * CachePayloadWeigher.INSTANCE.weigh("EUW1_7100000000", match("EUW1_7100000000"));
+        Cache<String, MatchSummary> cache = Caffeine.newBuilder()
+                .maximumWeight(budget)
+                .weigher(CachePayloadWeigher.INSTANCE)
+                .executor(Runnable::run)
+                .build();
+
+        // Act
+        for (int i = 1; i <= 20; i++) {
+            String matchId = "EUW1_71000000" + String.format("%02d", i);
+            cache.put(matchId, match(matchId));
+        }
+        cache.cleanUp();
+
+        // Assert
+        long weightedSize = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertThat(weightedSize).isPositive().isLessThanOrEqualTo(budget);
+        assertThat(cache.estimatedSize()).isBetween(1L, 6L);
+    }
+
+    // Ten players that no other match has seen, so the match pays for its own dictionary entries
+    private static MatchSummary match(String matchId) {
+        List<Participant> participants = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            participants.add(new Participant(puuid(matchId + "-" + i), "Champion" + i, "Player" + matchId + i, "EUW",
+                    null, 7, 2, 9, i < 5 ? 100 : 200, i < 5));
+        }
+        return MatchSummary.of(matchId, 1_700_000_000_000L, 1800, 420, "CLASSIC", participants, null);
+    }
+
+    // Riot PUUIDs are 78 characters long
+    private static String puuid(String seed) {
+        return (seed + "-" + "p".repeat(78)).substring(0, 78);
+    }
+}
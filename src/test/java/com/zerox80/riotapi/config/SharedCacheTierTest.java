@@ -0,0 +1,85 @@
+package com.zerox80.riotapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.zerox80.riotapi.model.Summoner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedCacheTierTest {
+
+    private static final List<String> MEMBERS = List.of("127.0.0.1:5921", "127.0.0.1:5922");
+
+    private static HazelcastInstance first;
+    private static HazelcastInstance second;
+
+    @BeforeAll
+    static void startCluster() {
+        first = Hazelcast.newHazelcastInstance(SharedCacheConfig.hazelcastConfig("shared-cache-test", 5921, MEMBERS, 16));
+        second = Hazelcast.newHazelcastInstance(SharedCacheConfig.hazelcastConfig("shared-cache-test", 5922, MEMBERS, 16));
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        second.shutdown();
+        first.shutdown();
+    }
+
+    @Test
+    void testRetrieve_loadsOnceAcrossNodes() throws Exception {
+        // Arrange
+        assertThat(first.getCluster().getMembers()).hasSize(2);
+        SharedCacheTier nodeA = tier(first);
+        SharedCacheTier nodeB = tier(second);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Act: both nodes miss on the same summoner while the first load is still running
+        List<CompletableFuture<Summoner>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            SharedCacheTier node = i % 2 == 0 ? nodeA : nodeB;
+            results.add(node.retrieve("summoners", "shared-puuid", () -> {
+                loads.incrementAndGet();
+                return CompletableFuture.supplyAsync(() -> {
+                    awaitQuietly(release);
+                    return new Summoner("id", "account", "shared-puuid", "Shared", 1, 0L, 30);
+                });
+            }));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        // Assert
+        for (CompletableFuture<Summoner> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS).getPuuid()).isEqualTo("shared-puuid");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(second.getMap("summoners").containsKey("shared-puuid")).isTrue();
+    }
+
+    private static SharedCacheTier tier(HazelcastInstance hazelcast) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new SharedCacheTier(hazelcast, objectMapper, SharedCacheConfig.valueTypes(objectMapper.getTypeFactory()),
+                5000, new SimpleMeterRegistry());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
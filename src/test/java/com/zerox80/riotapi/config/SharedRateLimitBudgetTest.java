@@ -0,0 +1,92 @@
+package com.zerox80.riotapi.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerox80.riotapi.client.RiotRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.net.http.HttpHeaders;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedRateLimitBudgetTest {
+
+    private static final String HOST = "euw1.api.riotgames.com";
+    private static final String MEMBERS = "127.0.0.1:5931,127.0.0.1:5932";
+
+    @Test
+    void testBudget_isSplitBetweenNodesAndReturnedWhenOneLeaves() {
+        node(5931, "10:60").run(first -> {
+            RiotRateLimiter firstLimiter = first.getBean(RiotRateLimiter.class);
+            assertThat(firstLimiter.budgetShare()).isEqualTo(1.0);
+
+            node(5932, "10:60").run(second -> {
+                // Arrange
+                RiotRateLimiter secondLimiter = second.getBean(RiotRateLimiter.class);
+                awaitTrue(() -> firstLimiter.budgetShare() == 0.5 && secondLimiter.budgetShare() == 0.5);
+
+                // Act
+                int admitted = admitAll(firstLimiter) + admitAll(secondLimiter);
+
+                // Assert: together the nodes stay within the 10 requests of the key
+                assertThat(admitted).isEqualTo(10);
+            });
+
+            awaitTrue(() -> firstLimiter.budgetShare() == 1.0);
+        });
+    }
+
+    @Test
+    void testBlock_fromOneNodeIsAppliedOnTheOther() {
+        // The budget is large enough that polling below cannot exhaust it without the block
+        node(5931, "1000:60").run(first -> node(5932, "1000:60").run(second -> {
+            // Arrange
+            RiotRateLimiter firstLimiter = first.getBean(RiotRateLimiter.class);
+            RiotRateLimiter secondLimiter = second.getBean(RiotRateLimiter.class);
+            awaitTrue(() -> secondLimiter.budgetShare() == 0.5);
+
+            // Act
+            firstLimiter.onResponse(HOST, "MatchIds", 429, HttpHeaders.of(Map.of(
+                    "Retry-After", List.of("3"),
+                    "X-Rate-Limit-Type", List.of("application")), (name, value) -> true));
+
+            // Assert
+            awaitTrue(() -> secondLimiter.tryAcquire(HOST, "Summoner") > 0);
+            assertThat(secondLimiter.tryAcquire("europe.api.riotgames.com", "Account")).isZero();
+        }));
+    }
+
+    private static ApplicationContextRunner node(int port, String appLimits) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new ApplicationContextRunner()
+                .withPropertyValues(
+                        "riot.cache.shared.enabled=true",
+                        "riot.cache.shared.cluster-name=rate-limit-test",
+                        "riot.cache.shared.port=" + port,
+                        "riot.cache.shared.members=" + MEMBERS)
+                .withBean(MeterRegistry.class, () -> meterRegistry)
+                .withBean(ObjectMapper.class, ObjectMapper::new)
+                .withBean(RiotRateLimiter.class, () -> new RiotRateLimiter(true, appLimits, meterRegistry))
+                .withUserConfiguration(SharedCacheConfig.class);
+    }
+
+    private static int admitAll(RiotRateLimiter limiter) {
+        int admitted = 0;
+        while (limiter.tryAcquire(HOST, "Summoner") == 0) {
+            admitted++;
+        }
+        return admitted;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
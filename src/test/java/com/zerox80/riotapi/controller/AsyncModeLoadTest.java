@@ -0,0 +1,135 @@
+package com.zerox80.riotapi.controller;
+
+import com.zerox80.riotapi.RiotApiApplication;
+import com.zerox80.riotapi.client.RiotApiClient;
+import com.zerox80.riotapi.model.Summoner;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares {@code riot.web.async-mode=callable} with {@code future} (and callable on virtual threads) by running
+ * concurrent clients against {@code /api/me}, backed by a Riot client that answers after a fixed latency.
+ * Throughput and latency of each mode are logged; the test only fails on non-200 responses.
+ * Run with {@code mvn test -Pload}.
+ */
+@Tag("load")
+class AsyncModeLoadTest {
+
+    private static final int REQUESTS = 640;
+    private static final int CONCURRENT_CLIENTS = 64;
+    private static final long RIOT_LATENCY_MS = 200;
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncModeLoadTest.class);
+
+    @Test
+    void compareAsyncModesUnderConcurrentLoad() throws Exception {
+        LoadResult callable = run("callable", "riot.web.async-mode=callable");
+        LoadResult virtualThreads = run("callable + virtual threads", "riot.web.async-mode=callable", "spring.threads.virtual.enabled=true");
+        LoadResult future = run("future", "riot.web.async-mode=future");
+
+        // Throughput depends on the machine, so the numbers are reported rather than compared
+        List<LoadResult> results = List.of(callable, virtualThreads, future);
+        results.forEach(result -> logger.info("{}", result));
+
+        assertThat(results).allSatisfy(result -> assertThat(result.failures()).isZero());
+    }
+
+    private LoadResult run(String name, String... properties) throws Exception {
+        List<String> allProperties = new ArrayList<>(List.of(properties));
+        allProperties.add("server.port=0");
+        allProperties.add("riot.api.key=load-test");
+        allProperties.add("riot.api.region=euw1");
+        allProperties.add("riot.api.community-dragon.url=http://localhost");
+        allProperties.add("logging.level.com.zerox80.riotapi=WARN");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RiotApiApplication.class, DelayedRiotClientConfig.class)
+                .properties(allProperties.toArray(new String[0]))
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/me");
+            try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                // Warm-up
+                client.send(request(uri), HttpResponse.BodyHandlers.discarding());
+
+                // Closed loop: every client keeps exactly one request in flight
+                List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+                AtomicInteger failures = new AtomicInteger();
+                long start = System.nanoTime();
+                try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int c = 0; c < CONCURRENT_CLIENTS; c++) {
+                        clients.submit(() -> {
+                            for (int i = 0; i < REQUESTS / CONCURRENT_CLIENTS; i++) {
+                                long sent = System.nanoTime();
+                                HttpResponse<Void> response = client.send(request(uri), HttpResponse.BodyHandlers.discarding());
+                                latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
+                                if (response.statusCode() != 200) {
+                                    failures.incrementAndGet();
+                                }
+                            }
+                            return null;
+                        });
+                    }
+                }
+                long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                List<Long> sorted = new ArrayList<>(latencies);
+                Collections.sort(sorted);
+                return new LoadResult(name, wallMillis, sorted.get(sorted.size() / 2),
+                        sorted.get((int) (sorted.size() * 0.99) - 1), failures.get());
+            }
+        }
+    }
+
+    private static HttpRequest request(URI uri) {
+        return HttpRequest.newBuilder(uri).header("Authorization", "Bearer load-test").GET().build();
+    }
+
+    private record LoadResult(String name, long wallMillis, long p50Millis, long p99Millis, long failures) {
+        @Override
+        public String toString() {
+            return String.format("%-28s %d requests from %d clients in %5d ms (%.0f req/s), p50 %d ms, p99 %d ms, failures %d",
+                    name, REQUESTS, CONCURRENT_CLIENTS, wallMillis, REQUESTS * 1000.0 / wallMillis, p50Millis, p99Millis, failures);
+        }
+    }
+
+    @TestConfiguration
+    static class DelayedRiotClientConfig {
+
+        @Bean
+        @Primary
+        RiotApiClient delayedRiotApiClient() {
+            Summoner summoner = new Summoner();
+            summoner.setPuuid("load-puuid");
+            summoner.setName("Load");
+            RiotApiClient client = mock(RiotApiClient.class);
+            when(client.getSummonerMeWithBearer(anyString())).thenAnswer(invocation -> CompletableFuture.supplyAsync(
+                    () -> summoner, CompletableFuture.delayedExecutor(RIOT_LATENCY_MS, TimeUnit.MILLISECONDS)));
+            return client;
+        }
+    }
+}
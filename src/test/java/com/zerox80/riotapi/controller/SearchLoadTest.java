@@ -0,0 +1,113 @@
+package com.zerox80.riotapi.controller;
+
+import com.zerox80.riotapi.RiotApiApplication;
+import com.zerox80.riotapi.client.RiotApiStubServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end {@code /search} load against {@link RiotApiStubServer}: the full stack (controller, service, caches,
+ * scheduler, rate limiter and HTTP client) runs unchanged, only {@code riot.api.base-url} points at the stub.
+ * The stub adds 20-120 ms latency per call and injects 1% 503s and 0.5% 429s. Clients search a fixed pool of
+ * players in a deterministic order, so later rounds hit the caches the way repeated searches do in production.
+ * <p>
+ * Run with {@code mvn test -Pload -Dtest=SearchLoadTest}; {@code -Dload.clients}, {@code -Dload.requests},
+ * {@code -Dload.players} and {@code -Dload.async-mode} change the scenario.
+ */
+@Tag("load")
+class SearchLoadTest {
+
+    private static final int CONCURRENT_CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 960);
+    private static final int PLAYERS = Integer.getInteger("load.players", 240);
+    private static final String ASYNC_MODE = System.getProperty("load.async-mode", "future");
+
+    @Test
+    void searchAgainstStubbedRiotApi() throws Exception {
+        try (RiotApiStubServer stub = RiotApiStubServer.start(0)
+                .latency(Duration.ofMillis(20), Duration.ofMillis(120))
+                .serverErrorRate(0.01)
+                .rateLimitRate(0.005, 1);
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(RiotApiApplication.class)
+                     .properties(
+                             "server.port=0",
+                             "riot.api.key=load-test",
+                             "riot.api.region=euw1",
+                             "riot.api.community-dragon.url=http://localhost",
+                             "riot.api.base-url=" + stub.baseUrl(),
+                             // The stub stands in for a production key; the default development budget would dominate
+                             "riot.api.rate-limit.app-default=10000:1",
+                             "riot.web.async-mode=" + ASYNC_MODE,
+                             "spring.jpa.show-sql=false",
+                             "logging.level.com.zerox80.riotapi=ERROR")
+                     .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                // Warm-up
+                client.send(request(port, 0), HttpResponse.BodyHandlers.discarding());
+
+                List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+                AtomicInteger next = new AtomicInteger();
+                AtomicInteger failures = new AtomicInteger();
+                long start = System.nanoTime();
+                try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int c = 0; c < CONCURRENT_CLIENTS; c++) {
+                        clients.submit(() -> {
+                            for (int i = next.getAndIncrement(); i < REQUESTS; i = next.getAndIncrement()) {
+                                long sent = System.nanoTime();
+                                HttpResponse<String> response = client.send(request(port, i % PLAYERS), HttpResponse.BodyHandlers.ofString());
+                                latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent));
+                                if (response.statusCode() != 200 || response.body().contains("An error occurred")) {
+                                    failures.incrementAndGet();
+                                }
+                            }
+                            return null;
+                        });
+                    }
+                }
+                long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                List<Long> sorted = new ArrayList<>(latencies);
+                Collections.sort(sorted);
+                System.out.printf("/search (%s): %d requests, %d clients, %d players in %d ms (%.0f req/s), "
+                                + "p50 %d ms, p90 %d ms, p99 %d ms, max %d ms, failures %d, stub calls: %d match, %d account%n",
+                        ASYNC_MODE, REQUESTS, CONCURRENT_CLIENTS, PLAYERS, wallMillis, REQUESTS * 1000.0 / wallMillis,
+                        percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), sorted.get(sorted.size() - 1),
+                        failures.get(), stub.requestCount("match"), stub.requestCount("account"));
+
+                assertThat(latencies).hasSize(REQUESTS);
+                // Injected faults are retried; only a fault on every attempt may surface
+                assertThat(failures.get()).isLessThanOrEqualTo(REQUESTS / 100);
+            }
+        }
+    }
+
+    private static HttpRequest request(int port, int player) {
+        String riotId = URLEncoder.encode("Load Player " + player + "#EUW", StandardCharsets.UTF_8);
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/search?riotId=" + riotId)).GET().build();
+    }
+
+    private static long percentile(List<Long> sorted, double quantile) {
+        return sorted.get(Math.max(0, (int) Math.ceil(sorted.size() * quantile) - 1));
+    }
+}
@@ -0,0 +1,101 @@
+package com.zerox80.riotapi.controller;
+
+import com.zerox80.riotapi.client.RiotApiClient;
+import com.zerox80.riotapi.model.AccountDto;
+import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchSummary.Participant;
+import com.zerox80.riotapi.model.Summoner;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SummonerControllerStreamTest {
+
+    private static final String PUUID = "stream-puuid";
+
+    @MockBean
+    private RiotApiClient riotApiClient;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void streamSummoner_sendsSummonerRankedMatchesAndAggregateInOrder() throws Exception {
+        // Arrange
+        AccountDto account = new AccountDto();
+        account.setPuuid(PUUID);
+        account.setGameName("Streamer");
+        account.setTagLine("EUW");
+        LeagueEntryDTO soloQueue = new LeagueEntryDTO();
+        soloQueue.setQueueType("RANKED_SOLO_5x5");
+        soloQueue.setTier("GOLD");
+        soloQueue.setRank("II");
+        List<String> matchIds = List.of("EUW1_1", "EUW1_2", "EUW1_3");
+
+        when(riotApiClient.getAccountByRiotId("Streamer", "EUW")).thenReturn(CompletableFuture.completedFuture(account));
+        when(riotApiClient.getSummonerByPuuid(PUUID)).thenReturn(CompletableFuture.completedFuture(
+                new Summoner("id", "account", PUUID, "Streamer", 7, 0L, 30)));
+        when(riotApiClient.getProfileIconUrl(anyInt())).thenReturn("http://localhost/icon/7.png");
+        when(riotApiClient.getLeagueEntriesByPuuid(PUUID)).thenReturn(CompletableFuture.completedFuture(List.of(soloQueue)));
+        when(riotApiClient.getMatchIdsByPuuid(PUUID, 5)).thenReturn(CompletableFuture.completedFuture(matchIds));
+        when(riotApiClient.getMatchDetails(anyString())).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                MatchSummary.of(invocation.getArgument(0), 0, 1800, 420, "CLASSIC",
+                        List.of(new Participant(PUUID, "Ahri", "Streamer", "EUW", null, 7, 2, 9, 100, true)), null)));
+
+        // Act
+        String body = stream("Streamer#EUW");
+
+        // Assert
+        assertThat(eventNames(body)).containsExactly("summoner", "leagueEntries", "match", "match", "match", "matchHistory");
+        assertThat(body)
+                .contains("\"profileIconUrl\":\"http://localhost/icon/7.png\"")
+                .contains("\"tier\":\"GOLD\"")
+                .contains("\"matchCount\":3")
+                .contains("\"championPlayCounts\":{\"Ahri\":3}");
+    }
+
+    @Test
+    void streamSummoner_sendsErrorEventForMalformedRiotId() throws Exception {
+        // Act
+        String body = stream("NoTagLine");
+
+        // Assert
+        assertThat(eventNames(body)).containsExactly("error");
+        assertThat(body).contains("Invalid Riot ID. Please use the format Name#TAG.");
+        verifyNoInteractions(riotApiClient);
+    }
+
+    private String stream(String riotId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/summoner/stream").param("riotId", riotId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Waits until the emitter completes
+        result.getAsyncResult(5_000);
+        return result.getResponse().getContentAsString();
+    }
+
+    private static List<String> eventNames(String body) {
+        return body.lines()
+                .filter(line -> line.startsWith("event:"))
+                .map(line -> line.substring("event:".length()).trim())
+                .toList();
+    }
+}
@@ -0,0 +1,50 @@
+package com.zerox80.riotapi.controller;
+
+import com.zerox80.riotapi.client.RiotApiClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "riot.web.async-mode=future",
+        "riot.web.profile-timeout-ms=200"
+})
+@AutoConfigureMockMvc
+class SummonerControllerTimeoutTest {
+
+    @MockBean
+    private RiotApiClient riotApiClient;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getMySummoner_answersGatewayTimeoutWhenRiotDoesNotAnswerInTime() throws Exception {
+        // Arrange: the RSO lookup never completes
+        when(riotApiClient.getSummonerMeWithBearer(anyString())).thenReturn(new CompletableFuture<>());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/me").header("Authorization", "Bearer token"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error").value("Timed out while resolving summoner via RSO."));
+    }
+}
@@ -0,0 +1,47 @@
+package com.zerox80.riotapi.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchStringDictionaryTest {
+
+    @Test
+    void tryEncode_keepsIdsStableWhileTheTableGrows() {
+        // Arrange: far more strings than the initial arrays hold, so the index is rehashed several times
+        MatchStringDictionary dictionary = new MatchStringDictionary(4096);
+        String[] strings = new String[11];
+        int[][] ids = new int[300][];
+
+        // Act
+        for (int match = 0; match < ids.length; match++) {
+            strings[0] = "CLASSIC";
+            for (int i = 1; i < strings.length; i++) {
+                strings[i] = "puuid-" + (match * 10 + i) % 2000;
+            }
+            ids[match] = new int[strings.length];
+            assertThat(dictionary.tryEncode(strings, ids[match])).isNotNegative();
+        }
+
+        // Assert
+        for (int match = 0; match < ids.length; match++) {
+            assertThat(dictionary.get(ids[match][0])).isEqualTo("CLASSIC");
+            for (int i = 1; i < strings.length; i++) {
+                assertThat(dictionary.get(ids[match][i])).isEqualTo("puuid-" + (match * 10 + i) % 2000);
+            }
+        }
+        assertThat(ids[0][1]).isEqualTo(ids[200][1]);
+    }
+
+    @Test
+    void tryEncode_refusesMatchesThatDoNotFit() {
+        MatchStringDictionary dictionary = new MatchStringDictionary(4);
+        int[] ids = new int[3];
+
+        assertThat(dictionary.tryEncode(new String[]{"a", "b", null}, ids)).isPositive();
+        assertThat(ids[2]).isEqualTo(MatchStringDictionary.NULL_ID);
+        assertThat(dictionary.tryEncode(new String[]{"c", "d", "e"}, ids)).isEqualTo(-1);
+        // Strings already in the table still fit
+        assertThat(dictionary.tryEncode(new String[]{"a", "b"}, new int[2])).isZero();
+    }
+}
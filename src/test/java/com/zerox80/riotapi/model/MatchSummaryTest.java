@@ -0,0 +1,63 @@
+package com.zerox80.riotapi.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zerox80.riotapi.model.MatchSummary.Participant;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchSummaryTest {
+
+    @Test
+    void testOf_sharesDictionaryEntriesBetweenMatches() {
+        // Arrange
+        List<Participant> players = List.of(
+                new Participant("dictionary-puuid-1", "Ahri", "First", "EUW", null, 7, 2, 9, 100, true),
+                new Participant("dictionary-puuid-2", "Zed", "Second", "EUW", null, 3, 8, 1, 200, false));
+        long savedBefore = MatchStringDictionary.stats().savedBytes();
+
+        // Act
+        MatchSummary first = MatchSummary.of("EUW1_1", 1_700_000_000_000L, 1800, 420, "CLASSIC", players, null);
+        MatchSummary second = MatchSummary.of("EUW1_2", 1_700_000_100_000L, 1500, 420, "CLASSIC", players, null);
+
+        // Assert
+        assertThat(first.dictionaryBytes()).isPositive();
+        assertThat(second.dictionaryBytes()).isZero();
+        assertThat(MatchStringDictionary.stats().savedBytes()).isGreaterThan(savedBefore);
+        assertThat(second.getGameMode()).isSameAs(first.getGameMode());
+        assertThat(second.participant("dictionary-puuid-1"))
+                .satisfies(p -> {
+                    assertThat(p.getChampionName()).isSameAs(first.participant("dictionary-puuid-1").getChampionName());
+                    assertThat(p.getKda()).isEqualTo("7/2/9");
+                    assertThat(p.getTeamId()).isEqualTo(100);
+                    assertThat(p.isWin()).isTrue();
+                    assertThat(p.getSummonerName()).isNull();
+                });
+        assertThat(second.participant("not-in-this-match")).isNull();
+    }
+
+    @Test
+    void testJson_roundTripsThroughParticipantViews() throws Exception {
+        // Arrange
+        ObjectMapper objectMapper = new ObjectMapper();
+        MatchSummary match = MatchSummary.of("EUW1_3", 1_700_000_200_000L, 1650, 440, "CLASSIC", List.of(
+                new Participant("json-puuid", "Lux", "Json", "EUW", "Legacy", 1, 4, 12, 200, false)), 17);
+
+        // Act
+        MatchSummary read = objectMapper.readValue(objectMapper.writeValueAsBytes(match), MatchSummary.class);
+
+        // Assert
+        assertThat(read.getMatchId()).isEqualTo("EUW1_3");
+        assertThat(read.getQueueId()).isEqualTo(440);
+        assertThat(read.getLpChange()).isEqualTo(17);
+        assertThat(read.getParticipants()).singleElement()
+                .satisfies(p -> {
+                    assertThat(p.getPuuid()).isEqualTo("json-puuid");
+                    assertThat(p.getSummonerName()).isEqualTo("Legacy");
+                    assertThat(p.getKda()).isEqualTo("1/4/12");
+                    assertThat(p.isWin()).isFalse();
+                });
+    }
+}
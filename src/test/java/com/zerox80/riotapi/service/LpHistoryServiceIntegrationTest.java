@@ -0,0 +1,114 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.client.RiotApiClient;
+import com.zerox80.riotapi.model.LpHistoryPointDTO;
+import com.zerox80.riotapi.model.LpResolution;
+import com.zerox80.riotapi.model.PlayerLpRecord;
+import com.zerox80.riotapi.repository.PlayerLpRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LpHistoryServiceIntegrationTest {
+
+    @MockBean
+    private RiotApiClient riotApiClient;
+
+    @Autowired
+    private LpHistoryService lpHistoryService;
+
+    @Autowired
+    private PlayerLpRecordRepository playerLpRecordRepository;
+
+    @AfterEach
+    void cleanUp() {
+        playerLpRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testRollUp_keepsLastPointPerBucket() {
+        // Arrange
+        String puuid = "rollup-puuid";
+        Instant tenDaysAgo = Instant.now().minus(10, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+        Instant hundredDaysAgo = Instant.now().minus(100, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        PlayerLpRecord oldHourly = new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", hundredDaysAgo.plusSeconds(3600), 10, "SILVER", "I");
+        oldHourly.setResolution(LpResolution.HOURLY);
+        PlayerLpRecord olderHourly = new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", hundredDaysAgo, 5, "SILVER", "I");
+        olderHourly.setResolution(LpResolution.HOURLY);
+        playerLpRecordRepository.saveAll(List.of(
+                olderHourly,
+                oldHourly,
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", tenDaysAgo.plusSeconds(60), 20, "GOLD", "IV"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", tenDaysAgo.plusSeconds(1200), 38, "GOLD", "IV"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", tenDaysAgo.plusSeconds(3000), 55, "GOLD", "IV"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", tenDaysAgo.plusSeconds(3700), 40, "GOLD", "IV"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", Instant.now().minus(1, ChronoUnit.DAYS), 61, "GOLD", "IV")));
+
+        // Act
+        lpHistoryService.rollUp();
+
+        // Assert
+        List<PlayerLpRecord> remaining = new ArrayList<>(playerLpRecordRepository.findByPuuidAndQueueTypeOrderByTimestampDesc(puuid, "RANKED_SOLO_5x5"));
+        assertThat(remaining).extracting(PlayerLpRecord::getLeaguePoints).containsExactly(61, 40, 55, 10);
+        assertThat(remaining).extracting(PlayerLpRecord::getResolution).containsExactly(
+                LpResolution.RAW, LpResolution.HOURLY, LpResolution.HOURLY, LpResolution.DAILY);
+    }
+
+    @Test
+    void testGetLpHistory_downsamplesToPointBudget() {
+        // Arrange
+        String puuid = "history-puuid";
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        List<PlayerLpRecord> records = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            records.add(new PlayerLpRecord(puuid, "RANKED_FLEX_SR", start.plusSeconds(i * 60L), i % 100, "GOLD", "II"));
+        }
+        playerLpRecordRepository.saveAll(records);
+
+        // Act
+        List<LpHistoryPointDTO> history = lpHistoryService.getLpHistory(puuid, "RANKED_FLEX_SR", start, start.plusSeconds(300 * 60L), 50);
+
+        // Assert
+        assertThat(history).hasSize(50);
+        assertThat(history.get(0).getTimestamp()).isEqualTo(start.toEpochMilli());
+        assertThat(history.get(0).getLadderPoints()).isEqualTo(3 * 400 + 2 * 100);
+        assertThat(history.get(49).getLeaguePoints()).isEqualTo(99);
+    }
+
+    @Test
+    void testGetLpHistory_pagesLongRangesAndKeepsPeaks() {
+        // Arrange: more than two pages of points with a single peak in the middle
+        String puuid = "long-history-puuid";
+        Instant start = Instant.parse("2024-01-01T00:00:00Z");
+        int count = LpHistoryService.PAGE_SIZE * 2 + 500;
+        List<PlayerLpRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int leaguePoints = i == 1234 ? 99 : i % 50;
+            records.add(new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(i * 60L), leaguePoints, "GOLD", "II"));
+        }
+        playerLpRecordRepository.saveAll(records);
+
+        // Act
+        List<LpHistoryPointDTO> history = lpHistoryService.getLpHistory(puuid, "RANKED_SOLO_5x5", Instant.EPOCH, Instant.now(), 100);
+
+        // Assert
+        assertThat(history).hasSizeLessThanOrEqualTo(100);
+        assertThat(history.get(0).getTimestamp()).isEqualTo(start.toEpochMilli());
+        assertThat(history.get(history.size() - 1).getTimestamp()).isEqualTo(start.plusSeconds((count - 1) * 60L).toEpochMilli());
+        assertThat(history).extracting(LpHistoryPointDTO::getTimestamp).isSorted();
+        assertThat(history).anySatisfy(point -> {
+            assertThat(point.getLeaguePoints()).isEqualTo(99);
+            assertThat(point.getTimestamp()).isEqualTo(start.plusSeconds(1234 * 60L).toEpochMilli());
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package com.zerox80.riotapi.service;
 
 import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
 import com.zerox80.riotapi.model.PlayerLpRecord;
+import com.zerox80.riotapi.model.Summoner;
 import com.zerox80.riotapi.repository.PlayerLpRecordRepository;
 import org.junit.jupiter.api.Test;
 import com.zerox80.riotapi.client.RiotApiClient;
@@ -11,7 +13,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -28,6 +36,9 @@ class PlayerLpRecordServiceIntegrationTest {
     @Autowired
     private PlayerLpRecordRepository playerLpRecordRepository;
 
+    @Autowired
+    private PlayerLpRecordWriter playerLpRecordWriter;
+
     @Test
     void testSavePlayerLpRecords_savesRecordsCorrectly() {
         // Arrange
@@ -94,4 +105,142 @@ class PlayerLpRecordServiceIntegrationTest {
         List<PlayerLpRecord> savedRecords = playerLpRecordRepository.findByPuuid(puuid);
         assertThat(savedRecords).isEmpty();
     }
+
+    @Test
+    void testSavePlayerLpRecords_extendsUnchangedPoint() {
+        // Arrange
+        String puuid = "test-puuid-3";
+        Instant first = Instant.parse("2024-05-01T10:00:00Z");
+
+        LeagueEntryDTO entry = new LeagueEntryDTO();
+        entry.setQueueType("RANKED_SOLO_5x5");
+        entry.setTier("GOLD");
+        entry.setRank("II");
+        entry.setLeaguePoints(60);
+
+        // Act
+        playerLpRecordService.savePlayerLpRecords(puuid, List.of(entry), first);
+        playerLpRecordService.savePlayerLpRecords(puuid, List.of(entry), first.plusSeconds(600));
+        entry.setLeaguePoints(78);
+        playerLpRecordService.savePlayerLpRecords(puuid, List.of(entry), first.plusSeconds(1200));
+
+        // Assert
+        List<PlayerLpRecord> savedRecords = playerLpRecordRepository.findByPuuidAndQueueTypeOrderByTimestampDesc(puuid, "RANKED_SOLO_5x5");
+        assertThat(savedRecords).hasSize(2);
+        assertThat(savedRecords.get(1).getLeaguePoints()).isEqualTo(60);
+        assertThat(savedRecords.get(1).getLastSeenAt()).isEqualTo(first.plusSeconds(600));
+        assertThat(savedRecords.get(0).getLeaguePoints()).isEqualTo(78);
+    }
+
+    @Test
+    void testCompactExistingRuns_keepsLpChanges() {
+        // Arrange
+        String puuid = "test-puuid-4";
+        Instant start = Instant.parse("2024-05-01T10:00:00Z");
+        playerLpRecordRepository.saveAll(List.of(
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start, 50, "GOLD", "I"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(100), 50, "GOLD", "I"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(200), 50, "GOLD", "I"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(300), 70, "GOLD", "I"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(400), 70, "GOLD", "I")));
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+        List<MatchSummary> matches = List.of(
+                rankedMatch("EUW1_1", start.plusSeconds(150)),
+                rankedMatch("EUW1_2", start.plusSeconds(250)),
+                rankedMatch("EUW1_3", start.plusSeconds(350)));
+        List<Integer> expected = playerLpRecordService.withLpChanges(summoner, matches).stream()
+                .map(MatchSummary::getLpChange).toList();
+
+        // Act
+        int removed = playerLpRecordWriter.compactExistingRuns();
+        List<MatchSummary> annotated = playerLpRecordService.withLpChanges(summoner, matches);
+
+        // Assert
+        assertThat(removed).isEqualTo(3);
+        assertThat(expected).containsExactly(0, 20, 0);
+        assertThat(annotated).extracting(MatchSummary::getLpChange).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testWithLpChanges_matchesPerMatchLookups() {
+        // Arrange
+        String puuid = "test-puuid-5";
+        Instant start = Instant.parse("2024-05-01T10:00:00Z");
+        PlayerLpRecord extended = new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(500), 80, "GOLD", "I");
+        extended.setLastSeenAt(start.plusSeconds(800));
+        playerLpRecordRepository.saveAll(List.of(
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start, 10, "GOLD", "II"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(200), 35, "GOLD", "II"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(300), 5, "GOLD", "I"),
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(400), 60, "GOLD", "I"),
+                extended,
+                new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", start.plusSeconds(900), 62, "GOLD", "I"),
+                new PlayerLpRecord(puuid, "RANKED_FLEX_SR", start.plusSeconds(100), 40, "SILVER", "III"),
+                new PlayerLpRecord(puuid, "RANKED_FLEX_SR", start.plusSeconds(600), 22, "SILVER", "III")));
+        Summoner summoner = new Summoner();
+        summoner.setPuuid(puuid);
+        List<MatchSummary> matches = new ArrayList<>(List.of(
+                rankedMatch("EUW1_10", start.minusSeconds(50)),
+                rankedMatch("EUW1_11", start.plusSeconds(200)),
+                rankedMatch("EUW1_12", start.plusSeconds(250)),
+                rankedMatch("EUW1_13", start.plusSeconds(350)),
+                rankedMatch("EUW1_14", start.plusSeconds(450)),
+                rankedMatch("EUW1_15", start.plusSeconds(700)),
+                rankedMatch("EUW1_16", start.plusSeconds(850)),
+                rankedMatch("EUW1_17", start.plusSeconds(1000))));
+        matches.add(match("EUW1_20", start.plusSeconds(300), 440));
+        matches.add(match("EUW1_30", start.plusSeconds(300), 400));
+        Collections.shuffle(matches, new Random(7));
+        Map<String, Integer> expected = new HashMap<>();
+        for (MatchSummary match : matches) {
+            expected.put(match.getMatchId(), perMatchLpChange(puuid, match));
+        }
+
+        // Act
+        List<MatchSummary> annotated = playerLpRecordService.withLpChanges(summoner, matches);
+
+        // Assert
+        assertThat(annotated).extracting(MatchSummary::getMatchId)
+                .containsExactlyElementsOf(matches.stream().map(MatchSummary::getMatchId).toList());
+        assertThat(matches).extracting(MatchSummary::getLpChange).containsOnlyNulls();
+        for (MatchSummary match : annotated) {
+            assertThat(match.getLpChange())
+                    .as(match.getMatchId())
+                    .isEqualTo(expected.get(match.getMatchId()));
+        }
+        assertThat(expected).containsEntry("EUW1_14", 20).containsEntry("EUW1_16", -18).containsEntry("EUW1_20", -18);
+    }
+
+    /**
+     * Reference implementation: the two lookups per match that the range query replaced.
+     */
+    private Integer perMatchLpChange(String puuid, MatchSummary match) {
+        String queueType = match.getQueueId() == 420 ? "RANKED_SOLO_5x5"
+                : match.getQueueId() == 440 ? "RANKED_FLEX_SR" : null;
+        if (queueType == null) {
+            return null;
+        }
+        Instant matchEndTime = Instant.ofEpochMilli(match.getGameEndTimestamp());
+        Optional<PlayerLpRecord> before = playerLpRecordRepository
+                .findFirstByPuuidAndQueueTypeAndTimestampBeforeOrderByTimestampDesc(puuid, queueType, matchEndTime);
+        Optional<PlayerLpRecord> after = before
+                .filter(record -> !record.lastObservedAt().isBefore(matchEndTime))
+                .or(() -> playerLpRecordRepository
+                        .findFirstByPuuidAndQueueTypeAndTimestampGreaterThanEqualOrderByTimestampAsc(puuid, queueType, matchEndTime));
+        if (before.isEmpty() || after.isEmpty()
+                || !before.get().getTier().equals(after.get().getTier())
+                || !before.get().getRank().equals(after.get().getRank())) {
+            return null;
+        }
+        return after.get().getLeaguePoints() - before.get().getLeaguePoints();
+    }
+
+    private static MatchSummary rankedMatch(String matchId, Instant gameEnd) {
+        return match(matchId, gameEnd, 420);
+    }
+
+    private static MatchSummary match(String matchId, Instant gameEnd, int queueId) {
+        return MatchSummary.of(matchId, gameEnd.toEpochMilli(), 1800, queueId, "CLASSIC", List.of(), null);
+    }
 }
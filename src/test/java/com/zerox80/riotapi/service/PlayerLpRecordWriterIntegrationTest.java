@@ -0,0 +1,115 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.client.RiotApiClient;
+import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.PlayerLpRecord;
+import com.zerox80.riotapi.repository.PlayerLpRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PlayerLpRecordWriterIntegrationTest {
+
+    @MockBean
+    private RiotApiClient riotApiClient;
+
+    @Autowired
+    private PlayerLpRecordService playerLpRecordService;
+
+    @Autowired
+    private PlayerLpRecordRepository playerLpRecordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        playerLpRecordRepository.deleteAll();
+    }
+
+    @Test
+    void testRecordPlayerLpSnapshots_persistsInBackground() throws InterruptedException {
+        // Arrange
+        String puuid = "write-behind-puuid";
+        Instant timestamp = Instant.now();
+
+        LeagueEntryDTO soloQueueEntry = new LeagueEntryDTO();
+        soloQueueEntry.setQueueType("RANKED_SOLO_5x5");
+        soloQueueEntry.setTier("PLATINUM");
+        soloQueueEntry.setRank("II");
+
+        // Act
+        for (int i = 0; i < 120; i++) {
+            soloQueueEntry.setLeaguePoints(i);
+            playerLpRecordService.recordPlayerLpSnapshots(puuid, List.of(soloQueueEntry), timestamp.plusSeconds(i));
+        }
+        List<PlayerLpRecord> savedRecords = List.of();
+        for (int i = 0; i < 50 && savedRecords.size() < 120; i++) {
+            Thread.sleep(100);
+            savedRecords = playerLpRecordRepository.findByPuuid(puuid);
+        }
+
+        // Assert
+        assertThat(savedRecords).hasSize(120);
+        assertThat(savedRecords).extracting(PlayerLpRecord::getId).doesNotHaveDuplicates();
+        assertThat(savedRecords).extracting(PlayerLpRecord::getLeaguePoints).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void testEnqueue_writesOnCallingThreadWhenQueueIsFull() {
+        // Arrange: one slot and no writer thread, so nothing drains the queue
+        String puuid = "backpressure-puuid";
+        PlayerLpRecordWriter writer = writer(1);
+
+        // Act
+        writer.enqueue(records(puuid, 3));
+
+        // Assert: the first record waits in the queue, the other two were written inline
+        assertThat(writer.pending(puuid, "RANKED_SOLO_5x5")).extracting(PlayerLpRecord::getLeaguePoints).containsExactly(0);
+        assertThat(playerLpRecordRepository.findByPuuid(puuid)).extracting(PlayerLpRecord::getLeaguePoints)
+                .containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void testShutdown_flushesQueuedRecords() {
+        // Arrange
+        String puuid = "shutdown-puuid";
+        PlayerLpRecordWriter writer = writer(100);
+        writer.enqueue(records(puuid, 5));
+        assertThat(playerLpRecordRepository.findByPuuid(puuid)).isEmpty();
+
+        // Act
+        writer.shutdown();
+
+        // Assert
+        assertThat(writer.pending(puuid, "RANKED_SOLO_5x5")).isEmpty();
+        assertThat(playerLpRecordRepository.findByPuuid(puuid)).extracting(PlayerLpRecord::getLeaguePoints)
+                .containsExactlyInAnyOrder(0, 1, 2, 3, 4);
+    }
+
+    // Not started, so records stay queued until the caller or shutdown() writes them
+    private PlayerLpRecordWriter writer(int capacity) {
+        return new PlayerLpRecordWriter(playerLpRecordRepository, transactionTemplate, new SimpleMeterRegistry(),
+                capacity, 50, 0, 200, false);
+    }
+
+    private static List<PlayerLpRecord> records(String puuid, int count) {
+        Instant timestamp = Instant.now();
+        List<PlayerLpRecord> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(new PlayerLpRecord(puuid, "RANKED_SOLO_5x5", timestamp.plusSeconds(i), i, "GOLD", "II"));
+        }
+        return records;
+    }
+}
@@ -1,15 +1,29 @@
 package com.zerox80.riotapi.service;
 
 import com.zerox80.riotapi.client.RiotApiClient;
-import com.zerox80.riotapi.model.InfoDto;
-import com.zerox80.riotapi.model.MatchV5Dto;
-import com.zerox80.riotapi.model.ParticipantDto;
+import com.zerox80.riotapi.model.AccountDto;
+import com.zerox80.riotapi.model.LeagueEntryDTO;
+import com.zerox80.riotapi.model.MatchSummary;
+import com.zerox80.riotapi.model.MatchSummary.Participant;
+import com.zerox80.riotapi.model.Summoner;
+import com.zerox80.riotapi.model.SummonerProfileData;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class RiotApiServiceTest {
 
@@ -17,40 +31,157 @@ class RiotApiServiceTest {
     void getChampionPlayCounts_countsMatchesForGivenPuuid() {
         String puuid = "player-puuid";
 
-        ParticipantDto p1 = new ParticipantDto();
-        p1.setPuuid(puuid);
-        p1.setChampionName("Ahri");
+        MatchSummary m1 = MatchSummary.of("EUW1_1", 0, 0, 420, "CLASSIC", List.of(
+                participant(puuid, "Ahri"),
+                participant("other", "Zed")), null);
 
-        ParticipantDto p2 = new ParticipantDto();
-        p2.setPuuid("other");
-        p2.setChampionName("Zed");
+        // The player appears twice in one match; a match counts once, for the first participant with the puuid
+        MatchSummary m2 = MatchSummary.of("EUW1_2", 0, 0, 420, "CLASSIC", List.of(
+                participant(puuid, "Ahri"),
+                participant(puuid, "Lux")), null);
 
-        InfoDto info1 = new InfoDto();
-        info1.setParticipants(List.of(p1, p2));
+        MatchSummary m3 = MatchSummary.of("EUW1_3", 0, 0, 420, "CLASSIC", List.of(
+                participant("other", "Ahri"),
+                participant(puuid, "Jinx")), null);
 
-        MatchV5Dto m1 = new MatchV5Dto();
-        m1.setInfo(info1);
+        RiotApiService service = new RiotApiService((RiotApiClient) null, (PlayerLpRecordService) null, (SummonerSuggestionIndex) null, 8, Runnable::run);
 
-        ParticipantDto p3 = new ParticipantDto();
-        p3.setPuuid(puuid);
-        p3.setChampionName("Ahri");
+        Map<String, Long> counts = service.getChampionPlayCounts(List.of(m1, m2, m3), puuid);
 
-        ParticipantDto p4 = new ParticipantDto();
-        p4.setPuuid(puuid);
-        p4.setChampionName("Lux");
-
-        InfoDto info2 = new InfoDto();
-        info2.setParticipants(List.of(p3, p4));
+        assertThat(counts.get("Ahri")).isEqualTo(2L);
+        assertThat(counts.get("Jinx")).isEqualTo(1L);
+        assertThat(counts).doesNotContainKey("Lux");
+        assertThat(counts).doesNotContainKey("Zed");
+    }
 
-        MatchV5Dto m2 = new MatchV5Dto();
-        m2.setInfo(info2);
+    @Test
+    void streamSummonerProfile_sendsCompleteEventAfterEveryMatchEvent() throws Exception {
+        // Arrange
+        String puuid = "stream-puuid";
+        AccountDto account = new AccountDto();
+        account.setPuuid(puuid);
+        account.setGameName("Streamer");
+        account.setTagLine("EUW");
+        List<String> matchIds = List.of("EUW1_10", "EUW1_11", "EUW1_12", "EUW1_13", "EUW1_14");
+
+        RiotApiClient client = mock(RiotApiClient.class);
+        when(client.getAccountByRiotId("Streamer", "EUW")).thenReturn(CompletableFuture.completedFuture(account));
+        when(client.getSummonerByPuuid(puuid)).thenReturn(CompletableFuture.completedFuture(
+                new Summoner("id", "account", puuid, "Streamer", 1, 0L, 30)));
+        when(client.getLeagueEntriesByPuuid(puuid)).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(client.getMatchIdsByPuuid(puuid, 5)).thenReturn(CompletableFuture.completedFuture(matchIds));
+        // Every match arrives on its own thread, well after the callbacks are attached, so a slow onMatch
+        // overlaps with later matches completing
+        ExecutorService matchThreads = Executors.newFixedThreadPool(matchIds.size());
+        when(client.getMatchDetails(anyString())).thenAnswer(invocation -> {
+            String matchId = invocation.getArgument(0);
+            return CompletableFuture.supplyAsync(() -> {
+                sleep(200 + 20L * matchIds.indexOf(matchId));
+                return MatchSummary.of(matchId, 0, 0, 420, "CLASSIC", List.of(participant(puuid, "Ahri")), null);
+            }, matchThreads);
+        });
+
+        PlayerLpRecordService lpRecordService = mock(PlayerLpRecordService.class);
+        when(lpRecordService.withLpChanges(any(), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        RiotApiService service = new RiotApiService(client, lpRecordService, mock(SummonerSuggestionIndex.class), 8, ForkJoinPool.commonPool());
+
+        List<String> events = new CopyOnWriteArrayList<>();
+        SummonerProfileListener listener = new SummonerProfileListener() {
+            @Override
+            public void onSummoner(Summoner summoner, String profileIconUrl) {
+                events.add("summoner");
+            }
+
+            @Override
+            public void onLeagueEntries(List<LeagueEntryDTO> leagueEntries) {
+                events.add("leagueEntries");
+            }
+
+            @Override
+            public void onMatch(int index, MatchSummary match) {
+                // A slow client connection
+                sleep(50);
+                events.add("match");
+            }
+
+            @Override
+            public void onMatchHistoryComplete(List<MatchSummary> matchHistory, Map<String, Long> championPlayCounts) {
+                events.add("matchHistory");
+            }
+
+            @Override
+            public void onError(String message) {
+                events.add("error");
+            }
+        };
+
+        // Act
+        service.streamSummonerProfile("Streamer", "EUW", listener).get(5, TimeUnit.SECONDS);
+        matchThreads.shutdown();
+
+        // Assert
+        assertThat(events).hasSize(8);
+        assertThat(events.get(events.size() - 1)).isEqualTo("matchHistory");
+        assertThat(events.stream().filter("match"::equals)).hasSize(5);
+    }
 
-        RiotApiService service = new RiotApiService((RiotApiClient) null, (PlayerLpRecordService) null);
+    @Test
+    void getSummonerProfileDataAsync_returnsArrivedMatchesOnceTheDeadlinePassed() {
+        // Arrange
+        String puuid = "puuid-1";
+        List<String> matchIds = List.of("EUW1_1", "EUW1_2", "EUW1_3", "EUW1_4", "EUW1_5");
+        AccountDto account = new AccountDto();
+        account.setPuuid(puuid);
+        account.setGameName("Streamer");
+        account.setTagLine("EUW");
+
+        RiotApiClient client = mock(RiotApiClient.class);
+        when(client.getAccountByRiotId("Streamer", "EUW")).thenReturn(CompletableFuture.completedFuture(account));
+        when(client.getSummonerByPuuid(puuid)).thenReturn(CompletableFuture.completedFuture(
+                new Summoner("id", "account", puuid, "Streamer", 1, 0L, 30)));
+        when(client.getLeagueEntriesByPuuid(puuid)).thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(client.getMatchIdsByPuuid(puuid, 5)).thenReturn(CompletableFuture.completedFuture(matchIds));
+        // The first two matches answer at once, the other three only long after the deadline
+        when(client.getMatchDetails(anyString())).thenAnswer(invocation -> {
+            String matchId = invocation.getArgument(0);
+            MatchSummary match = MatchSummary.of(matchId, 0, 0, 420, "CLASSIC", List.of(participant(puuid, "Ahri")), null);
+            return matchIds.indexOf(matchId) < 2
+                    ? CompletableFuture.completedFuture(match)
+                    : CompletableFuture.supplyAsync(() -> match, CompletableFuture.delayedExecutor(10, TimeUnit.SECONDS));
+        });
+
+        PlayerLpRecordService lpRecordService = mock(PlayerLpRecordService.class);
+        List<String> lpLookupThreads = new CopyOnWriteArrayList<>();
+        when(lpRecordService.withLpChanges(any(), any())).thenAnswer(invocation -> {
+            lpLookupThreads.add(Thread.currentThread().getName());
+            return invocation.getArgument(1);
+        });
+        RiotApiService service = new RiotApiService(client, lpRecordService, mock(SummonerSuggestionIndex.class), 8, ForkJoinPool.commonPool());
+
+        // Act
+        long start = System.nanoTime();
+        SummonerProfileData profile = service.getSummonerProfileDataAsync("Streamer", "EUW", Duration.ofMillis(300)).join();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertThat(profile.partial()).isTrue();
+        assertThat(profile.errorMessage()).isNull();
+        assertThat(profile.matchHistory()).extracting(MatchSummary::getMatchId).containsExactly("EUW1_1", "EUW1_2");
+        assertThat(profile.championPlayCounts()).containsEntry("Ahri", 2L);
+        assertThat(elapsedMillis).isLessThan(5_000);
+        // The database lookup must not run on the JVM-wide delay scheduler thread that fired the deadline
+        assertThat(lpLookupThreads).singleElement().asString().doesNotContain("DelayScheduler");
+    }
 
-        Map<String, Long> counts = service.getChampionPlayCounts(List.of(m1, m2), puuid);
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        assertThat(counts.get("Ahri")).isEqualTo(2L);
-        assertThat(counts.get("Lux")).isEqualTo(1L);
-        assertThat(counts).doesNotContainKey("Zed");
+    private static Participant participant(String puuid, String championName) {
+        return new Participant(puuid, championName, null, null, null, 0, 0, 0, 100, true);
     }
 }
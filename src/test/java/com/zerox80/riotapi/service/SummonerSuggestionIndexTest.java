@@ -0,0 +1,46 @@
+package com.zerox80.riotapi.service;
+
+import com.zerox80.riotapi.model.SummonerSuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummonerSuggestionIndexTest {
+
+    @Test
+    void suggest_ranksByLookupsAndIgnoresCaseAndDiacritics() {
+        SummonerSuggestionIndex index = new SummonerSuggestionIndex(null, 100);
+        index.record("Zoë", "EUW", 1, 30);
+        index.record("zombie", "EUW", 2, 40);
+        index.record("zombie", "EUW", 2, 41);
+        index.record("Faker", "KR1", 3, 500);
+
+        List<SummonerSuggestionDTO> suggestions = index.suggest("ZO", 10);
+
+        assertThat(suggestions).extracting(SummonerSuggestionDTO::getRiotId).containsExactly("zombie#EUW", "Zoë#EUW");
+        assertThat(suggestions.get(0).getSummonerLevel()).isEqualTo(41);
+        assertThat(index.suggest("zoe#", 10)).extracting(SummonerSuggestionDTO::getRiotId).containsExactly("Zoë#EUW");
+        assertThat(index.suggest("", 1)).extracting(SummonerSuggestionDTO::getRiotId).containsExactly("zombie#EUW");
+        assertThat(index.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    void record_evictsLeastFrequentlyUsedEntryWhenFull() {
+        SummonerSuggestionIndex index = new SummonerSuggestionIndex(null, 3);
+        for (int i = 0; i < 5; i++) {
+            index.record("alpha", "EUW", 1, 1);
+        }
+        index.record("alpine", "EUW", 1, 1);
+        index.record("alpine", "EUW", 1, 1);
+        index.record("albert", "EUW", 1, 1);
+
+        index.record("alfred", "EUW", 1, 1);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.suggest("al", 10)).extracting(SummonerSuggestionDTO::getRiotId)
+                .containsExactly("alpha#EUW", "alpine#EUW", "alfred#EUW");
+        assertThat(index.suggest("alb", 10)).isEmpty();
+    }
+}
@@ -0,0 +1,53 @@
+package com.zerox80.riotapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncUtilsTest {
+
+    @Test
+    void mapBounded_keepsOrderAndNeverExceedsParallelism() {
+        List<Integer> inputs = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> futures = AsyncUtils.mapBounded(inputs, 4, i -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            // Later elements finish first to show that results stay in input order
+            long delayMillis = 50 - i;
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return i * 2;
+            }, CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS));
+        });
+
+        List<Integer> results = new ArrayList<>();
+        futures.forEach(f -> results.add(f.join()));
+
+        assertThat(results).isEqualTo(inputs.stream().map(i -> i * 2).collect(Collectors.toList()));
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void mapBounded_failureOnlyAffectsItsOwnFuture() {
+        List<CompletableFuture<String>> futures = AsyncUtils.mapBounded(List.of("a", "boom", "c"), 1, value -> {
+            if ("boom".equals(value)) {
+                throw new IllegalStateException("failed");
+            }
+            return CompletableFuture.completedFuture(value.toUpperCase());
+        });
+
+        assertThat(futures.get(0).join()).isEqualTo("A");
+        assertThat(futures.get(1)).isCompletedExceptionally();
+        assertThat(futures.get(2).join()).isEqualTo("C");
+    }
+}
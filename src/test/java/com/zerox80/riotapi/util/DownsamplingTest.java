@@ -0,0 +1,34 @@
+package com.zerox80.riotapi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownsamplingTest {
+
+    @Test
+    void largestTriangleThreeBuckets_keepsEndpointsAndSpikes() {
+        List<int[]> points = IntStream.range(0, 1000)
+                .mapToObj(i -> new int[]{i, i == 500 ? 1000 : i % 10})
+                .collect(Collectors.toList());
+
+        List<int[]> sampled = Downsampling.largestTriangleThreeBuckets(points, 50, p -> p[0], p -> p[1]);
+
+        assertThat(sampled).hasSize(50);
+        assertThat(sampled.get(0)[0]).isZero();
+        assertThat(sampled.get(49)[0]).isEqualTo(999);
+        assertThat(sampled).anySatisfy(p -> assertThat(p[1]).isEqualTo(1000));
+        assertThat(sampled).isSortedAccordingTo((a, b) -> Integer.compare(a[0], b[0]));
+    }
+
+    @Test
+    void largestTriangleThreeBuckets_returnsSmallSeriesUnchanged() {
+        List<int[]> points = List.of(new int[]{0, 1}, new int[]{1, 2}, new int[]{2, 3});
+
+        assertThat(Downsampling.largestTriangleThreeBuckets(points, 10, p -> p[0], p -> p[1])).isSameAs(points);
+    }
+}